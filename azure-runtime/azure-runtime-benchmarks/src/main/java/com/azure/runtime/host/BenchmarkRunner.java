@@ -0,0 +1,34 @@
+package com.azure.runtime.host;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks, accepting the usual JMH command line options (e.g. {@code -p resources=1000} to run a single
+ * size, or {@code ManifestGenerationBenchmark.serialize} to run a single phase). Unless told otherwise, the results are
+ * written as JSON to {@value #DEFAULT_RESULT}, so that they can be compared between runs (for example with
+ * <a href="https://jmh.morethan.io">JMH Visualizer</a>) to spot regressions.
+ */
+public class BenchmarkRunner {
+
+    static final String DEFAULT_RESULT = "target/jmh-result.json";
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        final CommandLineOptions commandLine = new CommandLineOptions(args);
+
+        final ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine);
+        if (commandLine.getIncludes().isEmpty()) {
+            options.include(ManifestGenerationBenchmark.class.getSimpleName());
+        }
+        if (!commandLine.getResultFormat().hasValue() && !commandLine.getResult().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON).result(DEFAULT_RESULT);
+        }
+
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,195 @@
+package com.azure.runtime.host;
+
+import com.azure.runtime.host.utils.FileUtilities;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Measures each phase of manifest generation separately, for App Hosts of increasing size (see
+ * {@link SyntheticAppHost}), in the order in which {@link ManifestGenerator} runs them:
+ * <ol>
+ *     <li>{@code configure} - the App Host adding its resources to the application,</li>
+ *     <li>{@code templates} - rendering and writing the resource templates,</li>
+ *     <li>{@code precommit} - the lifecycle hooks, including the introspection of projects,</li>
+ *     <li>{@code validate} - validating the resources,</li>
+ *     <li>{@code serialize} - serializing the manifest to a string, and</li>
+ *     <li>{@code write} - publishing the manifest to a file.</li>
+ * </ol>
+ * Each phase starts from the state the previous phases leave the application in, which is prepared outside of the
+ * measurement.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ManifestGenerationBenchmark {
+
+    // the pipeline logs every phase, and at thousands of resources some of them per resource, which we don't want to
+    // measure. Held here, as the log manager only keeps weak references to its loggers.
+    private static final Logger ROOT_LOGGER = Logger.getLogger("com.azure.runtime.host");
+
+    /**
+     * The App Host and the directory that the manifest is generated into, shared by all the phases.
+     */
+    @State(Scope.Benchmark)
+    public static class Pipeline {
+        @Param({"10", "100", "1000", "10000"})
+        public int resources;
+
+        Path workingDirectory;
+        Path outputPath;
+        SyntheticAppHost appHost;
+        ManifestGenerator generator;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            ROOT_LOGGER.setLevel(java.util.logging.Level.WARNING);
+            workingDirectory = Files.createTempDirectory("apphost-benchmark");
+            outputPath = Files.createDirectories(workingDirectory.resolve("output"));
+            appHost = new SyntheticAppHost(resources, workingDirectory);
+            generator = new ManifestGenerator();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            try (Stream<Path> paths = Files.walk(workingDirectory)) {
+                paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+            }
+        }
+
+        DistributedApplication configure() {
+            // the output path is held in a thread local, and JMH may set up and measure on different threads
+            FileUtilities.setOutputPath(outputPath);
+
+            final DistributedApplication app = new DistributedApplication();
+            appHost.configureApplication(app);
+            return app;
+        }
+
+        DistributedApplication configureAndProcessTemplates() {
+            final DistributedApplication app = configure();
+            generator.processTemplates(app, outputPath);
+            return app;
+        }
+    }
+
+    /**
+     * An application that has been configured, as the templates phase expects it. Rendering the templates again
+     * renders the same files, so it is set up once.
+     */
+    @State(Scope.Thread)
+    public static class ConfiguredApplication {
+        DistributedApplication app;
+
+        @Setup(Level.Trial)
+        public void setUp(Pipeline pipeline) {
+            app = pipeline.configure();
+        }
+    }
+
+    /**
+     * An application whose templates have been processed, as the precommit phase expects it. The precommit hooks
+     * change the application - projects are introspected, and may be substituted by other resources - so it is set
+     * up anew for every invocation.
+     */
+    @State(Scope.Thread)
+    public static class UncommittedApplication {
+        DistributedApplication app;
+
+        @Setup(Level.Invocation)
+        public void setUp(Pipeline pipeline) {
+            app = pipeline.configureAndProcessTemplates();
+        }
+    }
+
+    /**
+     * An application that has been committed, and whose environments have been resolved, as the validate, serialize
+     * and write phases expect it. None of them change the application, so it is set up once.
+     */
+    @State(Scope.Thread)
+    public static class CommittedApplication {
+        @Param({ManifestPublisher.DEFAULT, ManifestPublisher.STREAMING})
+        public String publisher;
+
+        DistributedApplication app;
+        ObjectMapper objectMapper;
+        ManifestPublisher manifestPublisher;
+        Path manifestPath;
+
+        @Setup(Level.Trial)
+        public void setUp(Pipeline pipeline) {
+            app = pipeline.configureAndProcessTemplates();
+            pipeline.generator.callLifecyclePrecommitHook(app, new ManifestValidator());
+            ManifestGenerator.resolveEnvironments(app);
+            objectMapper = ManifestGenerator.createObjectMapper();
+            manifestPublisher = ManifestPublisher.fromName(publisher);
+            manifestPath = pipeline.outputPath.resolve("aspire-manifest.json");
+        }
+    }
+
+    @Benchmark
+    public DistributedApplication configure(Pipeline pipeline) {
+        return pipeline.configure();
+    }
+
+    @Benchmark
+    public DistributedApplication templates(Pipeline pipeline, ConfiguredApplication configured) {
+        FileUtilities.setOutputPath(pipeline.outputPath);
+        pipeline.generator.processTemplates(configured.app, pipeline.outputPath);
+        return configured.app;
+    }
+
+    @Benchmark
+    public DistributedApplication precommit(Pipeline pipeline, UncommittedApplication uncommitted) {
+        FileUtilities.setOutputPath(pipeline.outputPath);
+        pipeline.generator.callLifecyclePrecommitHook(uncommitted.app, new ManifestValidator());
+        return uncommitted.app;
+    }
+
+    @Benchmark
+    public List<String> validate(CommittedApplication committed) {
+        return new ManifestValidator().getViolations(committed.app.manifest);
+    }
+
+    @Benchmark
+    public String serialize(Pipeline pipeline, CommittedApplication committed) {
+        FileUtilities.setOutputPath(pipeline.outputPath);
+        pipeline.generator.withPublisher(committed.manifestPublisher);
+        return pipeline.generator.writeManifestToSring(committed.app, committed.objectMapper);
+    }
+
+    @Benchmark
+    public long write(Pipeline pipeline, CommittedApplication committed) throws IOException {
+        FileUtilities.setOutputPath(pipeline.outputPath);
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(committed.manifestPath))) {
+            committed.manifestPublisher.publish(committed.app.manifest, committed.objectMapper,
+                pipeline.outputPath, out);
+        }
+        return Files.size(committed.manifestPath);
+    }
+}
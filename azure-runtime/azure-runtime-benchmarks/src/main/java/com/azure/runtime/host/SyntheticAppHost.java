@@ -0,0 +1,167 @@
+package com.azure.runtime.host;
+
+import com.azure.runtime.host.extensions.azure.storage.AzureStorageExtension;
+import com.azure.runtime.host.extensions.azure.storage.resources.AzureStorageBlobsResource;
+import com.azure.runtime.host.extensions.spring.SpringExtension;
+import com.azure.runtime.host.resources.Container;
+import com.azure.runtime.host.resources.DockerFile;
+import com.azure.runtime.host.resources.Executable;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An App Host with a configurable number of resources, in roughly the mix a real distributed application has: mostly
+ * containers and Dockerfiles, with executables, Azure Storage accounts (which are deployed using Bicep), and Spring
+ * projects (which are introspected from their build files), all referencing one another.
+ * <p>
+ * Every group of {@value #GROUP_SIZE} resources is configured the same way, so the work per resource stays constant as
+ * the App Host grows, and the benchmarks scale linearly unless something in the pipeline does not. The last group is
+ * cut short if need be, so that the App Host has exactly the number of resources asked for.
+ */
+// Not public API
+class SyntheticAppHost implements AppHost {
+
+    // the number of resources each group adds (except the last one, which may add fewer)
+    static final int GROUP_SIZE = 20;
+
+    // the Spring projects are real (if tiny) projects on disk, as they are introspected during precommit. A handful are
+    // shared by all the Spring project resources, as projects usually are when an App Host has many replicas.
+    private static final int SPRING_PROJECTS = 4;
+
+    private static final String SPRING_POM = """
+        <?xml version="1.0" encoding="UTF-8"?>
+        <project xmlns="http://maven.apache.org/POM/4.0.0">
+            <modelVersion>4.0.0</modelVersion>
+            <parent>
+                <groupId>org.springframework.boot</groupId>
+                <artifactId>spring-boot-starter-parent</artifactId>
+                <version>3.3.1</version>
+            </parent>
+            <groupId>com.azure.example</groupId>
+            <artifactId>%s</artifactId>
+            <version>0.0.1-SNAPSHOT</version>
+            <dependencies>
+                <dependency>
+                    <groupId>org.springframework.boot</groupId>
+                    <artifactId>spring-boot-starter-web</artifactId>
+                </dependency>
+            </dependencies>
+            <build>
+                <plugins>
+                    <plugin>
+                        <groupId>org.springframework.boot</groupId>
+                        <artifactId>spring-boot-maven-plugin</artifactId>
+                    </plugin>
+                </plugins>
+            </build>
+        </project>
+        """;
+
+    private static final String SPRING_APPLICATION = """
+        package com.azure.example;
+
+        import org.springframework.boot.SpringApplication;
+        import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+        @SpringBootApplication
+        public class Application {
+            public static void main(String[] args) {
+                SpringApplication.run(Application.class, args);
+            }
+        }
+        """;
+
+    private final int resources;
+    private final List<Path> springProjects = new ArrayList<>();
+
+    /**
+     * Creates an App Host with the given number of resources, once the precommit hooks have run.
+     * @param resources The number of resources.
+     * @param workingDirectory The directory in which the Spring projects are created.
+     */
+    SyntheticAppHost(int resources, Path workingDirectory) throws IOException {
+        this.resources = resources;
+        for (int i = 0; i < SPRING_PROJECTS; i++) {
+            final Path project = workingDirectory.resolve("spring-project-" + i);
+            final Path sources = Files.createDirectories(project.resolve("src/main/java/com/azure/example"));
+            Files.writeString(project.resolve("pom.xml"), SPRING_POM.formatted(project.getFileName()));
+            Files.writeString(sources.resolve("Application.java"), SPRING_APPLICATION);
+            Files.writeString(Files.createDirectories(project.resolve("src/main/resources"))
+                .resolve("application.properties"), "server.port=" + (8080 + i) + "\n");
+            springProjects.add(project);
+        }
+    }
+
+    @Override
+    public void configureApplication(DistributedApplication app) {
+        final AzureStorageExtension storage = app.withExtension(AzureStorageExtension.class);
+        final SpringExtension spring = app.withExtension(SpringExtension.class);
+
+        int remaining = resources;
+        for (int group = 0; remaining > 0; group++) {
+            final String suffix = "-" + group;
+            // the resources of a group are added in this order until there are enough of them, so a group that is cut
+            // short still has its storage and backing services, which the other resources reference
+            int budget = Math.min(GROUP_SIZE, remaining);
+            remaining -= budget;
+
+            // an Azure Storage account (Bicep) with a blob container: 2 resources
+            AzureStorageBlobsResource blobs = null;
+            if (budget >= 2) {
+                blobs = storage.addAzureStorage("storage" + suffix).addBlobs("blobs" + suffix);
+                budget -= 2;
+            }
+
+            // 8 containers, the backing services, each referencing the previous one
+            Container<?> previous = null;
+            for (int i = 0; i < 8 && budget > 0; i++, budget--) {
+                final Container<?> container = app.addContainer("container-" + i + suffix, "nginx:1." + i)
+                    .withHttpEndpoint(8000 + i)
+                    .withEnvironment("LOG_LEVEL", "info")
+                    .withArgument("--worker-processes=" + i);
+                if (previous != null) {
+                    container.withReference(previous);
+                }
+                previous = container;
+            }
+
+            // 6 Dockerfiles, the services built from source, referencing a container and the blob storage
+            final List<DockerFile<?>> dockerFiles = new ArrayList<>();
+            for (int i = 0; i < 6 && budget > 0; i++, budget--) {
+                dockerFiles.add(app.addDockerFile("dockerfile-" + i + suffix, "./service-" + i + "/Dockerfile", "./service-" + i)
+                    .withBuildArg("VERSION", "1." + i)
+                    .withEnvironment("SERVICE_INDEX", String.valueOf(i))
+                    .withReference(previous)
+                    .withReference(blobs));
+            }
+
+            // a Spring project, the front end, referencing the blob storage, with OpenTelemetry every other group. With
+            // OpenTelemetry, the project is substituted during precommit by a Dockerfile and the image it is built
+            // from: 2 resources
+            if (budget > 0) {
+                final Path project = springProjects.get(group % springProjects.size());
+                final var springProject = spring.addSpringProject("spring" + suffix)
+                    .withPath(project.toString())
+                    .withExternalHttpEndpoints()
+                    .withReference(blobs);
+                budget--;
+                if (group % 2 == 0 && budget > 0) {
+                    springProject.withOpenTelemetry();
+                    budget--;
+                }
+            }
+
+            // and up to 3 executables, the jobs, each referencing a Dockerfile
+            for (int i = 0; i < 3 && budget > 0; i++, budget--) {
+                app.addExecutable(new Executable<>("executable-" + i + suffix, "/usr/bin", "java"))
+                    .withArgument("-jar")
+                    .withArgument("job-" + i + ".jar")
+                    .withReference(dockerFiles.get(i));
+            }
+        }
+    }
+}
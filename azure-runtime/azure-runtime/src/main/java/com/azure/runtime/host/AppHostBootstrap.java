@@ -23,6 +23,27 @@ class AppHostBootstrap {
 
     private static final String PROPERTY_OUTPUT_DIR = "--output-dir";
     private static final String PROPERTY_MODE = "--mode";
+    private static final String MODE_LOCAL = "local";
+    private static final String MODE_WATCH = "watch";
+    private static final String MODE_TRAIN = "train";
+    private static final String MODE_PUBLISH = "publish";
+    private static final String PROPERTY_CDS_ARCHIVE = "--cds-archive";
+    private static final String PROPERTY_PUBLISHER = "--publisher";
+    private static final String PROPERTY_INCREMENTAL = "--incremental";
+    private static final String PROPERTY_PARALLEL_VALIDATION = "--parallel-validation";
+    private static final String PROPERTY_DEPLOYMENT_WAVES = "--deployment-waves";
+    private static final String PROPERTY_MANIFEST_DIFF = "--manifest-diff";
+    private static final String PROPERTY_ENVIRONMENTS = "--environments";
+    private static final String PROPERTY_REPORT = "--report";
+
+    // The prefix of the per-environment parameters, which take the form --env.<environment>.<name>=<value>
+    private static final String ENVIRONMENT_PARAMETER_PREFIX = "--env.";
+
+    // The per-environment parameter that overrides the output directory of that environment
+    private static final String ENVIRONMENT_OUTPUT_DIR = "output-dir";
+
+    // The output directory value that sends the manifest to standard output
+    private static final String STANDARD_OUTPUT = "-";
 
     static class Parameter{
         final List<String> names;
@@ -63,12 +84,21 @@ class AppHostBootstrap {
     private static final List<Parameter> PARAMETERS = new ArrayList<>();
 
     static {
-        PARAMETERS.add(new Parameter(List.of(PROPERTY_OUTPUT_DIR, "-o"), "Set the output directory for generated configuration files such as the Java Runtime for Azure Manifest", "output"));
-        PARAMETERS.add(new Parameter(List.of(PROPERTY_MODE, "-m"), "Specifies if the execution mode is 'local' or 'publish'", "publish"));
+        PARAMETERS.add(new Parameter(List.of(PROPERTY_OUTPUT_DIR, "-o"), "Set the output directory for generated configuration files such as the Java Runtime for Azure Manifest. Use '-' to write the manifest to standard output (template files are then written to the working directory)", "output"));
+        PARAMETERS.add(new Parameter(List.of(PROPERTY_MODE, "-m"), "Specifies if the execution mode is 'local', 'publish', 'watch' (which publishes, and then keeps running to regenerate the manifest whenever the projects, Dockerfiles or App Host change), or 'train' (which publishes to a temporary directory to create a class data sharing archive, for faster startup with -XX:SharedArchiveFile)", MODE_PUBLISH));
+        PARAMETERS.add(new Parameter(PROPERTY_CDS_ARCHIVE, "The class data sharing archive to create in 'train' mode", ClassDataSharingTrainer.DEFAULT_ARCHIVE));
+        PARAMETERS.add(new Parameter(PROPERTY_INCREMENTAL, "Set to 'true' to only regenerate the template files and introspection results whose inputs have changed since the previous run, using the fingerprints recorded in the output directory", "false"));
+        PARAMETERS.add(new Parameter(PROPERTY_PARALLEL_VALIDATION, "Set to 'true' to validate independent resources in parallel", "false"));
+        PARAMETERS.add(new Parameter(PROPERTY_DEPLOYMENT_WAVES, "Set to 'true' to add the resources, grouped into waves of independent resources that can be deployed in parallel, to the manifest as the '" + JavaAppHostManifest.DEPLOYMENT_WAVES + "' extension", "false"));
+        PARAMETERS.add(new Parameter(PROPERTY_MANIFEST_DIFF, "Set to 'true' to compare the manifest with the one from the previous run in the output directory, and write the added, removed and changed resources to '" + ManifestDiff.FILENAME + "'", "false"));
+        PARAMETERS.add(new Parameter(PROPERTY_ENVIRONMENTS, "A comma-separated list of environments (e.g. 'dev,staging,prod') to generate manifests for in a single run, each in its own subdirectory of the output directory. Per-environment parameters are passed as '" + ENVIRONMENT_PARAMETER_PREFIX + "<environment>.<name>=<value>', and '" + ENVIRONMENT_PARAMETER_PREFIX + "<environment>." + ENVIRONMENT_OUTPUT_DIR + "=<dir>' overrides the output directory of an environment", ""));
+        PARAMETERS.add(new Parameter(PROPERTY_REPORT, "A file (e.g. '" + GenerationReport.DEFAULT_FILENAME + "') to write the wall time, CPU time and allocated bytes of every phase of generation, and of every resource whose templates are rendered or project is introspected, to. Relative paths are relative to the output directory. The slowest resources are also summarised in the log", ""));
+        PARAMETERS.add(new Parameter(PROPERTY_PUBLISHER, "Specifies how the manifest is written, either 'default' or 'streaming', which produce identical output, or 'canonical', which sorts the manifest, writes it compactly, and adds a content hash for every resource (in the '" + JavaAppHostManifest.RESOURCE_HASHES + "' extension)", ManifestPublisher.DEFAULT));
     }
 
     public static void boot(AppHost appHost, String... args) {
         Map<String, String> parsedParameters = new HashMap<>();
+        Map<String, Map<String, String>> environmentParameters = new HashMap<>();
 
         // Initialize parsedParameters with default values
         for (Parameter param : PARAMETERS) {
@@ -80,6 +110,8 @@ class AppHostBootstrap {
             if (arg.equals("--help") || arg.equals("-h")) {
                 printHelp();
                 System.exit(0);
+            } else if (arg.startsWith(ENVIRONMENT_PARAMETER_PREFIX)) {
+                parseEnvironmentParameter(arg, environmentParameters);
             } else {
                 for (Parameter param : PARAMETERS) {
                     for (String name : param.getNames()) {
@@ -97,15 +129,90 @@ class AppHostBootstrap {
             LOGGER.fine("Parsed runtime parameters: " + parsedParameters);
         }
 
-        if (parsedParameters.get(PROPERTY_MODE).equals("local")) {
+        final String mode = parsedParameters.get(PROPERTY_MODE);
+        if (mode.equals(MODE_LOCAL)) {
             appHost.run();
+        } else if (mode.equals(MODE_TRAIN)) {
+            final List<String> modeArguments = Arrays.stream(args)
+                .filter(arg -> getParameter(PROPERTY_MODE).getNames().stream().anyMatch(name -> arg.startsWith(name + "=")))
+                .toList();
+            new ClassDataSharingTrainer(Paths.get(parsedParameters.get(PROPERTY_CDS_ARCHIVE)))
+                .train(modeArguments, List.of(PROPERTY_MODE + "=" + MODE_PUBLISH));
         } else {
-            // outputDir is the root path and the specified directory combined
-            final Path outputDir = Paths.get(parsedParameters.get(PROPERTY_OUTPUT_DIR)).toAbsolutePath();
-            appHost.generateManifest(outputDir);
+            final String outputDirParameter = parsedParameters.get(PROPERTY_OUTPUT_DIR);
+            final ManifestGenerator generator = new ManifestGenerator()
+                .withPublisher(ManifestPublisher.fromName(parsedParameters.get(PROPERTY_PUBLISHER)));
+            if (Boolean.parseBoolean(parsedParameters.get(PROPERTY_INCREMENTAL))) {
+                generator.withIncremental();
+            }
+            if (Boolean.parseBoolean(parsedParameters.get(PROPERTY_PARALLEL_VALIDATION))) {
+                generator.withParallelValidation();
+            }
+            if (Boolean.parseBoolean(parsedParameters.get(PROPERTY_DEPLOYMENT_WAVES))) {
+                generator.withDeploymentWaves();
+            }
+            if (Boolean.parseBoolean(parsedParameters.get(PROPERTY_MANIFEST_DIFF))) {
+                generator.withManifestDiff();
+            }
+            if (!parsedParameters.get(PROPERTY_REPORT).isBlank()) {
+                generator.withReport(Paths.get(parsedParameters.get(PROPERTY_REPORT)));
+            }
+
+            final Path outputDir;
+            if (STANDARD_OUTPUT.equals(outputDirParameter)) {
+                generator.withManifestToStandardOutput();
+                outputDir = Paths.get("").toAbsolutePath();
+            } else {
+                // outputDir is the root path and the specified directory combined
+                outputDir = Paths.get(outputDirParameter).toAbsolutePath();
+            }
+
+            final String environmentsParameter = parsedParameters.get(PROPERTY_ENVIRONMENTS);
+            if (mode.equals(MODE_WATCH)) {
+                if (STANDARD_OUTPUT.equals(outputDirParameter) || !environmentsParameter.isBlank()) {
+                    throw new IllegalArgumentException("Watch mode requires a single output directory");
+                }
+                new ManifestWatcher(appHost, generator, outputDir).run();
+                return;
+            }
+            if (environmentsParameter.isBlank()) {
+                generator.generateManifest(appHost, outputDir);
+                return;
+            }
+
+            final List<ManifestGenerator.Environment> environments = new ArrayList<>();
+            for (String name : environmentsParameter.split(",")) {
+                name = name.trim();
+                if (name.isEmpty()) {
+                    continue;
+                }
+                final Map<String, String> parameters = new HashMap<>(environmentParameters.getOrDefault(name, Map.of()));
+                final String environmentOutputDir = parameters.remove(ENVIRONMENT_OUTPUT_DIR);
+                final Path environmentOutputPath = environmentOutputDir == null
+                    ? outputDir.resolve(name)
+                    : Paths.get(environmentOutputDir).toAbsolutePath();
+                environments.add(new ManifestGenerator.Environment(name, environmentOutputPath, parameters));
+            }
+            generator.generateManifests(appHost, environments);
         }
     }
 
+    private static void parseEnvironmentParameter(String arg, Map<String, Map<String, String>> environmentParameters) {
+        final String parameter = arg.substring(ENVIRONMENT_PARAMETER_PREFIX.length());
+        final int dot = parameter.indexOf('.');
+        final int equals = parameter.indexOf('=');
+        if (dot <= 0 || equals < dot + 2) {
+            throw new IllegalArgumentException("Invalid environment parameter '" + arg + "', expected "
+                + ENVIRONMENT_PARAMETER_PREFIX + "<environment>.<name>=<value>");
+        }
+        environmentParameters.computeIfAbsent(parameter.substring(0, dot), k -> new HashMap<>())
+            .put(parameter.substring(dot + 1, equals), parameter.substring(equals + 1));
+    }
+
+    private static Parameter getParameter(String name) {
+        return PARAMETERS.stream().filter(p -> p.toString().equals(name)).findFirst().orElseThrow();
+    }
+
     private static void printHelp() {
         System.out.println("Java Runtime for Azure runtime flags:");
         for (Parameter param : PARAMETERS) {
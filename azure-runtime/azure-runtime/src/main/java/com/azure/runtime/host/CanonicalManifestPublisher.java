@@ -0,0 +1,156 @@
+package com.azure.runtime.host;
+
+import com.azure.runtime.host.utils.templates.TemplateFileOutput;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * A publisher that writes the manifest in a canonical form, so that the same App Host always produces exactly the same
+ * bytes, and so that the manifest is as small as possible:
+ * <ul>
+ *     <li>The fields of every object - the resources, and the env, bindings, etc. of each resource - are sorted by
+ *     name. Arrays (such as args) keep their order, as it is meaningful.</li>
+ *     <li>The JSON is written compactly, without any whitespace.</li>
+ *     <li>Every resource gets a content hash, in the {@value JavaAppHostManifest#RESOURCE_HASHES} extension, covering
+ *     its canonical JSON, the files rendered from its templates, and the file named by its path property (e.g. its
+ *     Dockerfile or Bicep module). A deployer can compare these hashes with those of the previous deployment to skip the resources that have not changed,
+ *     without having to diff the JSON. The content of directories (such as a Dockerfile's build context) is not
+ *     hashed - rebuilding those is left to the build tooling's own caching.</li>
+ * </ul>
+ */
+// Not public API
+class CanonicalManifestPublisher implements ManifestPublisher {
+
+    @Override
+    public void publish(JavaAppHostManifest manifest, ObjectMapper objectMapper, Path outputPath, OutputStream out)
+            throws IOException {
+        final ObjectWriter writer = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+        ObjectNode root = (ObjectNode) canonicalize(objectMapper.valueToTree(manifest));
+        // the resources are already sorted, so the hashes are too
+        final ObjectNode hashes = objectMapper.createObjectNode();
+        final Iterator<Map.Entry<String, JsonNode>> resources = root.path("resources").fields();
+        while (resources.hasNext()) {
+            final Map.Entry<String, JsonNode> resource = resources.next();
+            hashes.put(resource.getKey(), hash(resource.getValue(),
+                manifest.templateFiles.getOrDefault(resource.getKey(), List.of()), outputPath, writer));
+        }
+        if (!hashes.isEmpty()) {
+            root = withField(root, JavaAppHostManifest.RESOURCE_HASHES, hashes);
+        }
+
+        writer.writeValue(out, root);
+    }
+
+    /**
+     * Returns a copy of the given (canonical) object with the given field added, keeping the fields sorted by name. Only
+     * the top level is copied, as the rest of the tree is canonical already.
+     */
+    private static ObjectNode withField(ObjectNode node, String name, JsonNode value) {
+        final Map<String, JsonNode> fields = new TreeMap<>();
+        node.fields().forEachRemaining(field -> fields.put(field.getKey(), field.getValue()));
+        fields.put(name, value);
+
+        final ObjectNode result = node.objectNode();
+        fields.forEach(result::set);
+        return result;
+    }
+
+    /**
+     * Returns a copy of the given node in which the fields of every object are sorted by name.
+     */
+    private static JsonNode canonicalize(JsonNode node) {
+        if (node.isObject()) {
+            final ObjectNode sorted = ((ObjectNode) node).objectNode();
+            final Set<String> names = new TreeSet<>();
+            node.fieldNames().forEachRemaining(names::add);
+            for (String name : names) {
+                sorted.set(name, canonicalize(node.get(name)));
+            }
+            return sorted;
+        }
+        if (node.isArray()) {
+            final ArrayNode array = ((ArrayNode) node).arrayNode(node.size());
+            node.elements().forEachRemaining(element -> array.add(canonicalize(element)));
+            return array;
+        }
+        return node;
+    }
+
+    private static String hash(JsonNode resource, List<TemplateFileOutput> templateFiles, Path outputPath,
+                               ObjectWriter writer) throws IOException {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+
+        digest.update(writer.writeValueAsBytes(resource));
+        // the files are identified by their path as it appears in the manifest (so not by their absolute path), so
+        // that the hash is the same wherever the manifest is generated
+        for (Map.Entry<String, byte[]> file : findFiles(resource, templateFiles, outputPath).entrySet()) {
+            digest.update((byte) 0);
+            digest.update(file.getKey().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(file.getValue());
+        }
+        return "sha256:" + HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Finds the content of the files deployed with the given resource, by their path relative to the output directory:
+     * the files rendered from its templates (as rendered, so regardless of which resource wrote a shared file last), and
+     * the file named by its path property, such as a Dockerfile or Bicep module, if it is not one of those. The files
+     * are sorted by path, so the hash does not depend on the order they were rendered in.
+     */
+    private static Map<String, byte[]> findFiles(JsonNode resource, List<TemplateFileOutput> templateFiles,
+                                                 Path outputPath) throws IOException {
+        final Map<String, byte[]> files = new TreeMap<>();
+        for (TemplateFileOutput templateFile : templateFiles) {
+            files.put(normalize(templateFile.filename()), templateFile.content().getBytes(StandardCharsets.UTF_8));
+        }
+
+        final JsonNode path = resource.path("path");
+        if (outputPath != null && path.isTextual() && !files.containsKey(normalize(path.textValue()))) {
+            try {
+                final Path file = outputPath.resolve(path.textValue()).normalize();
+                if (Files.isRegularFile(file)) {
+                    files.put(normalize(path.textValue()), Files.readAllBytes(file));
+                }
+            } catch (InvalidPathException e) {
+                // not a file we can hash
+            }
+        }
+        return files;
+    }
+
+    private static String normalize(String path) {
+        try {
+            return Path.of(path).normalize().toString().replace(File.separatorChar, '/');
+        } catch (InvalidPathException e) {
+            return path;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.azure.runtime.host;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Creates a dynamic AppCDS (class data sharing) archive for the App Host. Generating a manifest is a short-lived
+ * process whose time is mostly spent loading and linking classes (Jackson, Hibernate Validator, FreeMarker, ...), so
+ * launching the App Host with an archive of those classes ({@code -XX:SharedArchiveFile=apphost.jsa}) makes it start
+ * considerably faster.
+ * <p>
+ * A dynamic archive can only be dumped by a JVM that was launched with {@code -XX:ArchiveClassesAtExit}, so training
+ * relaunches the App Host - with the same JVM options, class or module path, and arguments - in that mode, and has it
+ * generate the manifest into a temporary directory, so that the archive contains every class a real run needs.
+ */
+// Not public API
+class ClassDataSharingTrainer {
+    private static final Logger LOGGER = Logger.getLogger(ClassDataSharingTrainer.class.getName());
+
+    static final String DEFAULT_ARCHIVE = "apphost.jsa";
+
+    // JVM options of the current process that would conflict with dumping a new archive
+    private static final List<String> CDS_OPTIONS = List.of(
+        "-XX:SharedArchiveFile=", "-XX:ArchiveClassesAtExit=", "-XX:+AutoCreateSharedArchive", "-Xshare:");
+
+    private final Path archive;
+
+    ClassDataSharingTrainer(Path archive) {
+        this.archive = archive.toAbsolutePath();
+    }
+
+    /**
+     * Relaunches the App Host to generate a manifest and dump the archive, and waits for it to finish.
+     * @param trainArguments The arguments that put the App Host into training mode, which are replaced in the relaunched
+     *                       process by the given arguments.
+     * @param publishArguments The arguments that put the relaunched App Host into publish mode.
+     */
+    void train(List<String> trainArguments, List<String> publishArguments) {
+        final ProcessHandle.Info info = ProcessHandle.current().info();
+        if (info.command().isEmpty() || info.arguments().isEmpty()) {
+            throw new RuntimeException("Unable to determine how the App Host was launched - create the archive by "
+                + "launching it with -XX:ArchiveClassesAtExit=" + archive + " instead");
+        }
+
+        Path outputDir = null;
+        try {
+            outputDir = Files.createTempDirectory("apphost-train");
+
+            final List<String> command = new ArrayList<>();
+            command.add(info.command().get());
+            command.add("-XX:ArchiveClassesAtExit=" + archive);
+            for (String argument : info.arguments().get()) {
+                if (CDS_OPTIONS.stream().noneMatch(argument::startsWith) && !trainArguments.contains(argument)) {
+                    command.add(argument);
+                }
+            }
+            command.addAll(publishArguments);
+            command.add("--output-dir=" + outputDir);
+
+            LOGGER.info("Training class data sharing archive...");
+            final Process process = new ProcessBuilder(command).inheritIO().start();
+            final int exitCode = process.waitFor();
+            if (exitCode != 0 || !Files.isRegularFile(archive)) {
+                throw new RuntimeException("Training the class data sharing archive failed (exit code " + exitCode + ")");
+            }
+
+            LOGGER.info("Class data sharing archive written to " + archive + " (" + Files.size(archive) / 1024 + " KB). "
+                + "Launch the App Host with -XX:SharedArchiveFile=" + archive + " to use it");
+        } catch (IOException e) {
+            throw new RuntimeException("Training the class data sharing archive failed", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            deleteRecursively(outputDir);
+        }
+    }
+
+    private static void deleteRecursively(Path dir) {
+        if (dir == null) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        } catch (IOException e) {
+            LOGGER.warning("Unable to delete " + dir + ": " + e.getMessage());
+        }
+    }
+}
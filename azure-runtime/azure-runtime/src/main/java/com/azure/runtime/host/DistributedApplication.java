@@ -1,14 +1,16 @@
 package com.azure.runtime.host;
 
 import com.azure.runtime.host.resources.*;
+import com.azure.runtime.host.utils.FingerprintStore;
 import jakarta.validation.Valid;
 
 import java.io.PrintStream;
 import java.lang.reflect.InvocationTargetException;
-import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
-import java.util.ServiceLoader;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Represents the core of a distributed application within the Java Runtime for Azure framework. This class serves as
@@ -47,11 +49,27 @@ public class DistributedApplication {
     @Valid
     final JavaAppHostManifest manifest;
 
-    private final List<Extension> extensions = new ArrayList<>();
+    // The extensions that have been asked for, each instantiated the first time it is asked for
+    private final Map<Class<? extends Extension>, Extension> extensions = new ConcurrentHashMap<>();
+
+    private final String environmentName;
+
+    private final Map<String, String> parameters;
+
+    private final FingerprintStore fingerprints;
+
+    // set once the environment callbacks of every resource have been run, and their results recorded on the resources
+    volatile boolean environmentsResolved;
 
     DistributedApplication() {
+        this(null, Map.of(), FingerprintStore.disabled());
+    }
+
+    DistributedApplication(String environmentName, Map<String, String> parameters, FingerprintStore fingerprints) {
         manifest = new JavaAppHostManifest();
-        loadExtensions();
+        this.environmentName = environmentName;
+        this.parameters = Map.copyOf(parameters);
+        this.fingerprints = fingerprints;
 
         // FIXME This is hacky
         INSTANCE = this;
@@ -61,8 +79,59 @@ public class DistributedApplication {
         return INSTANCE;
     }
 
-    private void loadExtensions() {
-        ServiceLoader.load(Extension.class).forEach(extensions::add);
+
+    /***************************************************************************
+     *
+     * Environment
+     *
+     **************************************************************************/
+
+    /**
+     * Returns the name of the environment (e.g. "dev" or "prod") that the distributed application is being configured
+     * for, if the App Host was asked to generate manifests for one or more named environments (using the
+     * {@code --environments} flag). The App Host can use this to configure each environment differently.
+     * <p>
+     * Usage example:
+     *
+     * {@snippet lang="java" :
+     * if (app.getEnvironmentName().filter("prod"::equals).isPresent()) {
+     *     storage.withExternalHttpEndpoints();
+     * }
+     * }
+     *
+     * @return The name of the environment, or an empty optional if no environment was specified.
+     */
+    public Optional<String> getEnvironmentName() {
+        return Optional.ofNullable(environmentName);
+    }
+
+    /**
+     * Returns the value of a parameter passed to the App Host for the current environment. Parameters are specified on
+     * the command line as {@code --env.<environment>.<name>=<value>}, e.g. {@code --env.prod.replicas=3}.
+     * <p>
+     * Usage example:
+     *
+     * {@snippet lang="java" :
+     * String image = "nginx:" + app.getParameter("nginx-version").orElse("latest");
+     * }
+     *
+     * @param name The name of the parameter.
+     * @return The value of the parameter, or an empty optional if it was not specified for the current environment.
+     */
+    public Optional<String> getParameter(String name) {
+        return Optional.ofNullable(parameters.get(name));
+    }
+
+    /**
+     * Returns the fingerprint store for this run of the App Host, which resources and extensions can use to reuse the
+     * results of expensive work (such as build introspection) whose inputs have not changed since the previous run.
+     * Unless the App Host is running incrementally, this is a disabled store, on which every lookup misses.
+     *
+     * @return The fingerprint store for this run.
+     * @see FingerprintStore
+     */
+    public FingerprintStore getFingerprintStore() {
+        return fingerprints;
     }
 
 
@@ -113,6 +182,32 @@ public class DistributedApplication {
         manifest.substituteResource(oldResource, newResources);
     }
 
+    /**
+     * Builds the dependency graph of the resources currently in the distributed application, i.e. which resources
+     * reference (and therefore depend on) which other resources. The graph can be used to find the consumers of a
+     * resource, to detect dependency cycles, and to group the resources into waves that can be deployed in parallel.
+     * <p>
+     * The graph is built from the environments of the resources as they were resolved - by running their environment
+     * callbacks once - just before the manifest is published, so it is not available while the App Host is configuring
+     * the application, e.g. in {@link AppHost#configureApplication(DistributedApplication)}.
+     * <p>
+     * Usage example:
+     *
+     * {@snippet lang="java" :
+     * List<Resource<?>> consumers = app.getDependencyGraph().getDependents("storage-explorer-blobs");
+     * }
+     *
+     * @return A snapshot of the dependency graph of the resources in the distributed application.
+     * @throws IllegalStateException If the environments of the resources have not been resolved yet.
+     */
+    public ResourceDependencyGraph getDependencyGraph() {
+        if (!environmentsResolved) {
+            throw new IllegalStateException("The dependency graph is only available once the environments of the "
+                + "resources have been resolved, just before the manifest is published");
+        }
+        return ResourceDependencyGraph.build(manifest.getResources().values());
+    }
+
 
     /***************************************************************************
      *
@@ -335,8 +430,8 @@ public class DistributedApplication {
      */
     public void printExtensions(PrintStream out) {
         out.println("Available Extensions:");
-        extensions.stream().sorted(Comparator.comparing(Extension::getName)).forEach(e -> {
-            out.println("  - " + e.getName() + " (" + e.getClass().getSimpleName() + ".class): " + e.getDescription());
+        ExtensionIndex.getEntries().stream().sorted(Comparator.comparing(ExtensionIndex.Entry::name)).forEach(e -> {
+            out.println("  - " + e.name() + " (" + e.type().getSimpleName() + ".class): " + e.description());
         });
     }
 
@@ -346,6 +441,8 @@ public class DistributedApplication {
      * is key to the extensibility of the Java Runtime for Azure framework, allowing developers to dynamically add and
      * configure extensions that enhance the application's functionality.
      * <p>
+     * The extension is instantiated the first time it is asked for, and the same instance is returned from then on.
+     * <p>
      * Usage example:
      *
      * {@snippet lang="java" :
@@ -358,6 +455,10 @@ public class DistributedApplication {
      * @throws RuntimeException If the extension class cannot be instantiated.
      */
     public <T extends Extension> T withExtension(Class<T> extension) {
+        return extension.cast(extensions.computeIfAbsent(extension, DistributedApplication::newExtension));
+    }
+
+    private static Extension newExtension(Class<? extends Extension> extension) {
         try {
             return extension.getDeclaredConstructor().newInstance();
         } catch (InvocationTargetException | NoSuchMethodException | InstantiationException | IllegalAccessException e) {
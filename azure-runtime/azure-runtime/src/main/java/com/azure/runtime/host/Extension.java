@@ -2,19 +2,29 @@ package com.azure.runtime.host;
 
 /**
  * An extension is a collection of resources that can be used to extend the functionality of the AppHost API.
+ * Extensions should be annotated with {@link ExtensionInfo}, which provides their name and description without them
+ * having to be instantiated.
  */
 public interface Extension {
     /**
-     * Returns the extension name - which is used when displaying the extension in the UI / CLI.
+     * Returns the extension name - which is used when displaying the extension in the UI / CLI. By default, this is
+     * the name given in the {@link ExtensionInfo} annotation of the extension.
      *
      * @return The name of the extension.
      */
-    String getName();
+    default String getName() {
+        ExtensionInfo info = getClass().getAnnotation(ExtensionInfo.class);
+        return info == null ? getClass().getSimpleName() : info.name();
+    }
 
     /**
-     * Returns a description of the extension - which is used when displaying the extension in the UI / CLI.
+     * Returns a description of the extension - which is used when displaying the extension in the UI / CLI. By
+     * default, this is the description given in the {@link ExtensionInfo} annotation of the extension.
      *
      * @return The description of the extension.
      */
-    String getDescription();
+    default String getDescription() {
+        ExtensionInfo info = getClass().getAnnotation(ExtensionInfo.class);
+        return info == null ? "" : info.description();
+    }
 }
@@ -0,0 +1,48 @@
+package com.azure.runtime.host;
+
+import java.util.List;
+import java.util.ServiceLoader;
+
+/**
+ * The extensions available to the App Host, as discovered from the module path (or class path) by the
+ * {@link ServiceLoader}. Discovery only loads the extension classes - it neither instantiates nor initializes them -
+ * as the name and description of each extension are read from its {@link ExtensionInfo} annotation. Only extensions
+ * without the annotation are instantiated, to ask them directly.
+ * <p>
+ * Discovery happens once per JVM, the first time the available extensions are asked for, which typically only happens
+ * when they are {@link DistributedApplication#printExtensions() printed}.
+ */
+// Not public API
+final class ExtensionIndex {
+
+    /**
+     * An available extension.
+     */
+    record Entry(String name, String description, Class<? extends Extension> type) { }
+
+    private static final class Holder {
+        private static final List<Entry> ENTRIES = discover();
+    }
+
+    private ExtensionIndex() { }
+
+    /**
+     * Returns the available extensions, in discovery order.
+     */
+    static List<Entry> getEntries() {
+        return Holder.ENTRIES;
+    }
+
+    private static List<Entry> discover() {
+        return ServiceLoader.load(Extension.class).stream()
+            .map(provider -> {
+                ExtensionInfo info = provider.type().getAnnotation(ExtensionInfo.class);
+                if (info != null) {
+                    return new Entry(info.name(), info.description(), provider.type());
+                }
+                Extension extension = provider.get();
+                return new Entry(extension.getName(), extension.getDescription(), provider.type());
+            })
+            .toList();
+    }
+}
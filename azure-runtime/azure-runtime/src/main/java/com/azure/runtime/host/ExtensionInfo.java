@@ -0,0 +1,38 @@
+package com.azure.runtime.host;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Describes an {@link Extension}. As this is recorded in the extension class at build time, the App Host can list the
+ * available extensions without instantiating (or even initializing) any of them - an extension is only instantiated
+ * once the App Host asks for it with {@link DistributedApplication#withExtension(Class)}. Extensions that are not
+ * annotated are still supported, but have to be instantiated to find out their name and description.
+ * <p>
+ * Usage example:
+ *
+ * {@snippet lang="java" :
+ * @ExtensionInfo(name = "Azure Storage", description = "Provides resources for Azure Storage.")
+ * public class AzureStorageExtension implements Extension {
+ *     // ...
+ * }
+ * }
+ */
+@Documented
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ExtensionInfo {
+
+    /**
+     * The name of the extension, as returned by {@link Extension#getName()}.
+     */
+    String name();
+
+    /**
+     * The description of the extension, as returned by {@link Extension#getDescription()}.
+     */
+    String description();
+}
@@ -0,0 +1,344 @@
+package com.azure.runtime.host;
+
+import com.azure.runtime.host.implementation.jfr.GenerationPhaseEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * Records where the time goes when a manifest is generated: the wall time, CPU time and allocated bytes of every phase
+ * of generation, and of every resource in the phases that do work per resource (rendering templates, and the precommit
+ * hooks, which is where projects are introspected). The report is written as JSON, and the slowest resources are
+ * summarised in the log:
+ * <pre>
+ * {
+ *   "phases" : [ { "name" : "configure", "wallTimeMs" : 41.2, "cpuTimeMs" : 38.9, "allocatedBytes" : 5242880 }, ... ],
+ *   "resources" : [ { "name" : "storage-explorer", "phase" : "precommit", "wallTimeMs" : 812.4, ... }, ... ]
+ * }
+ * </pre>
+ * CPU time and allocated bytes are measured per thread, and are the sum over the thread running the phase and the
+ * threads doing work for its resources. As the JVM can only measure platform threads, work that a phase would otherwise
+ * hand to virtual threads is done on platform threads while a report is being recorded (see {@link #isEnabled()}).
+ * <p>
+ * A report that is not enabled measures nothing, so the generator can record into it unconditionally. Either way, every
+ * phase is also recorded as a {@link GenerationPhaseEvent} when JDK Flight Recorder is recording.
+ */
+// Not public API
+final class GenerationReport {
+    private static final Logger LOGGER = Logger.getLogger(GenerationReport.class.getName());
+
+    static final String DEFAULT_FILENAME = "generation-report.json";
+
+    static final String CONFIGURE = "configure";
+    static final String TEMPLATES = "templates";
+    static final String PRECOMMIT = "precommit";
+    static final String VALIDATE = "validate";
+    static final String RESOLVE = "resolve";
+    static final String DEPLOYMENT_WAVES = "deployment-waves";
+    static final String WRITE = "write";
+
+    // the number of resources summarised in the log
+    private static final int SLOWEST_RESOURCES = 10;
+
+    private static final GenerationReport DISABLED = new GenerationReport(false);
+
+    private final boolean enabled;
+    private final Map<String, Measurement> phases = new ConcurrentHashMap<>();
+    private final List<String> phaseOrder = new ArrayList<>();
+    private final ConcurrentLinkedQueue<ResourceMeasurement> resources = new ConcurrentLinkedQueue<>();
+
+    private GenerationReport(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Returns a new report, which records the measurements of one generation.
+     */
+    static GenerationReport create() {
+        Sample.enableMeasurement();
+        return new GenerationReport(true);
+    }
+
+    /**
+     * Returns a report that measures nothing.
+     */
+    static GenerationReport disabled() {
+        return DISABLED;
+    }
+
+    boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Runs a phase of generation on the current thread, measuring it.
+     */
+    void phase(String name, Runnable phase) {
+        phase(name, () -> {
+            phase.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs a phase of generation on the current thread, measuring it.
+     */
+    <T> T phase(String name, Supplier<T> phase) {
+        final GenerationPhaseEvent event = new GenerationPhaseEvent();
+        event.begin();
+        try {
+            return enabled ? measurePhase(name, phase) : phase.get();
+        } finally {
+            if (event.shouldCommit()) {
+                event.phase = name;
+                event.commit();
+            }
+        }
+    }
+
+    private <T> T measurePhase(String name, Supplier<T> phase) {
+        final Measurement measurement = phases.computeIfAbsent(name, n -> new Measurement());
+        synchronized (phaseOrder) {
+            if (!phaseOrder.contains(name)) {
+                phaseOrder.add(name);
+            }
+        }
+
+        measurement.owner = Thread.currentThread();
+        final Sample sample = Sample.start();
+        try {
+            return phase.get();
+        } finally {
+            sample.stopInto(measurement, true);
+        }
+    }
+
+    /**
+     * Runs some of the work of a phase for a single resource, measuring it. It may run on any thread, and may be called
+     * several times for the same resource, in which case the measurements add up.
+     */
+    <T> T resource(String phase, String resource, Supplier<T> work) {
+        if (!enabled) {
+            return work.get();
+        }
+        final ResourceMeasurement measurement = new ResourceMeasurement(resource, phase, new Measurement());
+        final Sample sample = Sample.start();
+        try {
+            return work.get();
+        } finally {
+            sample.stopInto(measurement.measurement(), true);
+            resources.add(measurement);
+
+            // work done on the thread running the phase is already part of its measurement
+            final Measurement phaseMeasurement = phases.get(phase);
+            if (phaseMeasurement != null && !phaseMeasurement.isOwnedBy(Thread.currentThread())) {
+                sample.stopInto(phaseMeasurement, false);
+            }
+        }
+    }
+
+    /**
+     * Runs some of the work of a phase for a single resource, measuring it.
+     */
+    void resource(String phase, String resource, Runnable work) {
+        resource(phase, resource, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Writes the report as JSON to the given file, and logs the slowest resources.
+     */
+    void write(Path path, ObjectMapper objectMapper) {
+        if (!enabled) {
+            return;
+        }
+        final List<ResourceMeasurement> byResource = getResources();
+
+        final ObjectNode root = objectMapper.createObjectNode();
+        final ArrayNode phasesNode = root.putArray("phases");
+        synchronized (phaseOrder) {
+            phaseOrder.forEach(name -> phases.get(name).toJson(phasesNode.addObject().put("name", name)));
+        }
+        final ArrayNode resourcesNode = root.putArray("resources");
+        byResource.forEach(r -> r.measurement().toJson(resourcesNode.addObject().put("name", r.name()).put("phase", r.phase())));
+
+        try {
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(path.toFile(), root);
+            LOGGER.info("Generation report written to " + path);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+
+        if (!byResource.isEmpty()) {
+            final StringBuilder summary = new StringBuilder("Slowest resources:");
+            byResource.stream().limit(SLOWEST_RESOURCES).forEach(r ->
+                summary.append(System.lineSeparator()).append("  ").append(r.name())
+                    .append(" (").append(r.phase()).append("): ").append(r.measurement()));
+            LOGGER.info(summary.toString());
+        }
+    }
+
+    /**
+     * Returns the measurements per resource and phase, slowest first.
+     */
+    List<ResourceMeasurement> getResources() {
+        final Map<String, ResourceMeasurement> merged = new ConcurrentHashMap<>();
+        resources.forEach(r -> merged.merge(r.phase() + "/" + r.name(), r, (a, b) ->
+            new ResourceMeasurement(a.name(), a.phase(), a.measurement().plus(b.measurement()))));
+        return merged.values().stream()
+            .sorted(Comparator.comparingLong((ResourceMeasurement r) -> r.measurement().getWallTime()).reversed()
+                .thenComparing(ResourceMeasurement::name))
+            .toList();
+    }
+
+    record ResourceMeasurement(String name, String phase, Measurement measurement) { }
+
+    /**
+     * The wall time, CPU time and allocated bytes of some work. CPU time and allocated bytes are -1 if the JVM cannot
+     * measure them.
+     */
+    static final class Measurement {
+        private final AtomicLong wallTime = new AtomicLong();
+        private final AtomicLong cpuTime = new AtomicLong();
+        private final AtomicLong allocatedBytes = new AtomicLong();
+        private volatile boolean cpuTimeMeasured = true;
+        private volatile boolean allocatedBytesMeasured = true;
+        // the thread running the phase, if this is the measurement of a phase
+        private volatile Thread owner;
+
+        private boolean isOwnedBy(Thread thread) {
+            return owner == thread;
+        }
+
+        long getWallTime() {
+            return wallTime.get();
+        }
+
+        long getCpuTime() {
+            return cpuTimeMeasured ? cpuTime.get() : -1;
+        }
+
+        long getAllocatedBytes() {
+            return allocatedBytesMeasured ? allocatedBytes.get() : -1;
+        }
+
+        private void add(long wall, long cpu, long allocated) {
+            wallTime.addAndGet(wall);
+            if (cpu < 0) {
+                cpuTimeMeasured = false;
+            } else {
+                cpuTime.addAndGet(cpu);
+            }
+            if (allocated < 0) {
+                allocatedBytesMeasured = false;
+            } else {
+                allocatedBytes.addAndGet(allocated);
+            }
+        }
+
+        private Measurement plus(Measurement other) {
+            final Measurement sum = new Measurement();
+            sum.add(getWallTime() + other.getWallTime(),
+                getCpuTime() < 0 || other.getCpuTime() < 0 ? -1 : getCpuTime() + other.getCpuTime(),
+                getAllocatedBytes() < 0 || other.getAllocatedBytes() < 0 ? -1 : getAllocatedBytes() + other.getAllocatedBytes());
+            return sum;
+        }
+
+        private void toJson(ObjectNode node) {
+            node.put("wallTimeMs", toMillis(getWallTime()));
+            if (getCpuTime() >= 0) {
+                node.put("cpuTimeMs", toMillis(getCpuTime()));
+            }
+            if (getAllocatedBytes() >= 0) {
+                node.put("allocatedBytes", getAllocatedBytes());
+            }
+        }
+
+        private static double toMillis(long nanos) {
+            return Math.round(nanos / 1000.0) / 1000.0;
+        }
+
+        @Override
+        public String toString() {
+            String result = TimeUnit.NANOSECONDS.toMillis(getWallTime()) + " ms wall";
+            if (getCpuTime() >= 0) {
+                result += ", " + TimeUnit.NANOSECONDS.toMillis(getCpuTime()) + " ms CPU";
+            }
+            if (getAllocatedBytes() >= 0) {
+                result += ", " + getAllocatedBytes() / (1024 * 1024) + " MB allocated";
+            }
+            return result;
+        }
+    }
+
+    /**
+     * The starting point of a measurement on the current thread.
+     */
+    private record Sample(long wallTime, long cpuTime, long allocatedBytes) {
+        // Only looked up once a report is created, as measuring CPU time and allocations has a cost for every thread in
+        // the JVM, which we don't want to pay when no report was asked for.
+        private static final com.sun.management.ThreadMXBean THREADS =
+            ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads ? threads : null;
+
+        /**
+         * Turns on the measurement of the CPU time and allocated bytes of every thread, where the JVM supports it.
+         */
+        static void enableMeasurement() {
+            if (THREADS == null) {
+                return;
+            }
+            try {
+                if (THREADS.isThreadCpuTimeSupported()) {
+                    THREADS.setThreadCpuTimeEnabled(true);
+                }
+                if (THREADS.isThreadAllocatedMemorySupported()) {
+                    THREADS.setThreadAllocatedMemoryEnabled(true);
+                }
+            } catch (UnsupportedOperationException | SecurityException e) {
+                // we'll make do with wall time
+            }
+        }
+
+        static Sample start() {
+            return new Sample(System.nanoTime(), currentCpuTime(), currentAllocatedBytes());
+        }
+
+        /**
+         * Adds the work done on the current thread since the sample was started to the given measurement.
+         * @param includeWallTime Whether to include the wall time, which for work done on other threads than the one
+         *                        running a phase is already part of the wall time of the phase.
+         */
+        void stopInto(Measurement measurement, boolean includeWallTime) {
+            final long cpu = currentCpuTime();
+            final long allocated = currentAllocatedBytes();
+            measurement.add(includeWallTime ? System.nanoTime() - wallTime : 0,
+                cpu < 0 || cpuTime < 0 ? -1 : cpu - cpuTime,
+                allocated < 0 || allocatedBytes < 0 ? -1 : allocated - allocatedBytes);
+        }
+
+        private static long currentCpuTime() {
+            // -1 for virtual threads, and if the JVM does not support it
+            return THREADS == null || !THREADS.isThreadCpuTimeEnabled() ? -1 : THREADS.getCurrentThreadCpuTime();
+        }
+
+        private static long currentAllocatedBytes() {
+            return THREADS == null || !THREADS.isThreadAllocatedMemoryEnabled() ? -1 : THREADS.getCurrentThreadAllocatedBytes();
+        }
+    }
+}
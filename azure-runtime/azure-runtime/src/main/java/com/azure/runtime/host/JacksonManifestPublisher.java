@@ -0,0 +1,23 @@
+package com.azure.runtime.host;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+
+/**
+ * The original publisher, which hands the whole manifest to Jackson and lets it introspect its way down the graph.
+ */
+// Not public API
+class JacksonManifestPublisher implements ManifestPublisher {
+
+    @Override
+    public void publish(JavaAppHostManifest manifest, ObjectMapper objectMapper, Path outputPath, OutputStream out)
+            throws IOException {
+        objectMapper.writerWithDefaultPrettyPrinter()
+            .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+            .writeValue(out, manifest);
+    }
+}
@@ -1,27 +1,102 @@
 package com.azure.runtime.host;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.azure.runtime.host.implementation.jfr.ResourceSubstitutionEvent;
 import com.azure.runtime.host.resources.Resource;
+import com.azure.runtime.host.utils.templates.TemplateFileOutput;
 import jakarta.validation.Valid;
 
 import java.util.*;
+import java.util.stream.Collectors;
 
 // Not public API
+@JsonPropertyOrder({"$schema", "resources", JavaAppHostManifest.DEPLOYMENT_WAVES})
 class JavaAppHostManifest {
+    static final String SCHEMA = "https://json.schemastore.org/aspire-8.0.json";
+    static final String DEPLOYMENT_WAVES = "x-deployment-waves";
+    static final String RESOURCE_HASHES = "x-resource-hashes";
+
     @JsonProperty("$schema")
-    private final String schema = "https://json.schemastore.org/aspire-8.0.json";
+    private final String schema = SCHEMA;
+
+    // When set on the current thread (i.e. while a precommit hook is running), changes to the set of resources are
+    // recorded here rather than being applied, so that they can be applied afterwards in a deterministic order.
+    private static final ThreadLocal<List<Runnable>> DEFERRED_CHANGES = new ThreadLocal<>();
+
+    // Set while the precommit hooks of a wave are running. Any change to the set of resources must then be deferred, as
+    // the registry is not thread-safe, so a change made outside of runDeferringChanges is rejected.
+    private volatile boolean precommitInProgress;
 
     // Map from resource name to resource
     @Valid
     @JsonProperty("resources")
-    Map<String, Resource<?>> resources;
+    final ResourceRegistry resources;
+
+    // An optional extension to the manifest: the names of the resources, grouped into waves that can be deployed in
+    // parallel. See ResourceDependencyGraph.getWaves().
+    @JsonProperty(DEPLOYMENT_WAVES)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    List<List<String>> deploymentWaves;
+
+    // The files rendered from the templates of each resource, by resource name, so that the canonical publisher can
+    // hash them. See ManifestGenerator.processTemplates().
+    @JsonIgnore
+    final Map<String, List<TemplateFileOutput>> templateFiles = new HashMap<>();
 
     JavaAppHostManifest() {
-        this.resources = new LinkedHashMap<>();
+        this.resources = new ResourceRegistry();
+    }
+
+    /**
+     * Runs the given task, recording (rather than applying) any changes it makes to the set of resources in the given
+     * list. The caller is responsible for later running the recorded changes.
+     */
+    void runDeferringChanges(List<Runnable> changes, Runnable task) {
+        DEFERRED_CHANGES.set(changes);
+        try {
+            task.run();
+        } finally {
+            DEFERRED_CHANGES.remove();
+        }
+    }
+
+    /**
+     * Marks the start of a wave of precommit hooks. Until {@link #endPrecommit()} is called, changes to the set of
+     * resources are only accepted from tasks run by {@link #runDeferringChanges(List, Runnable)}.
+     */
+    void beginPrecommit() {
+        precommitInProgress = true;
+    }
+
+    /**
+     * Marks the end of a wave of precommit hooks, after which changes to the set of resources are applied immediately.
+     */
+    void endPrecommit() {
+        precommitInProgress = false;
+    }
+
+    private boolean defer(Runnable change) {
+        final List<Runnable> changes = DEFERRED_CHANGES.get();
+        if (changes == null) {
+            if (precommitInProgress) {
+                // e.g. a hook that continued on a thread other than those of the executor it was given
+                throw new IllegalStateException("Resources can only be added, removed or substituted by a precommit "
+                    + "hook from tasks run on the executor given to onResourcePrecommitAsync()");
+            }
+            return false;
+        }
+        changes.add(change);
+        return true;
     }
 
     <T extends Resource<?>> T addResource(T resource) {
         Objects.requireNonNull(resource);
+        if (defer(() -> addResource(resource))) {
+            return resource;
+        }
 
         if (resources.containsKey(resource.getName())) {
             throw new IllegalArgumentException("Resource with name " + resource.getName() + " already exists in manifest");
@@ -34,6 +109,9 @@ class JavaAppHostManifest {
 
     <T extends Resource<?>> T removeResource(T resource) {
         Objects.requireNonNull(resource);
+        if (defer(() -> removeResource(resource))) {
+            return resource;
+        }
         resources.remove(resource.getName());
         resource.onResourceRemoved();
         return resource;
@@ -54,6 +132,9 @@ class JavaAppHostManifest {
         if (newResources == null || newResources.length == 0) {
             throw new IllegalArgumentException("newResources cannot be null or empty");
         }
+        if (defer(() -> substituteResource(oldResource, newResources))) {
+            return;
+        }
         if (!resources.containsKey(oldResource.getName())) {
             throw new IllegalArgumentException("oldResource not found in manifest");
         }
@@ -63,17 +144,15 @@ class JavaAppHostManifest {
             }
         }
 
-        Map<String, Resource<?>> newResourcesMap = new LinkedHashMap<>();
-        for (Map.Entry<String, Resource<?>> entry : resources.entrySet()) {
-            if (entry.getKey().equals(oldResource.getName())) {
-                for (Resource<?> newResource : newResources) {
-                    newResourcesMap.put(newResource.getName(), newResource);
-                }
-            } else {
-                newResourcesMap.put(entry.getKey(), entry.getValue());
-            }
-        }
-        resources = newResourcesMap;
+        final ResourceSubstitutionEvent event = new ResourceSubstitutionEvent();
+        event.begin();
+        resources.replace(oldResource.getName(), newResources);
         oldResource.onResourceRemoved();
+        if (event.shouldCommit()) {
+            event.resource = oldResource.getName();
+            event.resourceType = oldResource.getClass();
+            event.substitutes = Arrays.stream(newResources).map(Resource::getName).collect(Collectors.joining(","));
+            event.commit();
+        }
     }
 }
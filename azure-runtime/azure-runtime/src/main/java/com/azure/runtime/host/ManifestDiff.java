@@ -0,0 +1,164 @@
+package com.azure.runtime.host;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.MissingNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A structural, per-resource diff between two manifests: which resources were added, which were removed, and for each
+ * resource present in both, which of its fields were added, removed or changed. Fields are identified by their JSON
+ * pointer within the resource (e.g. {@code /env/ConnectionStrings__storage}). Arrays are treated as values, i.e. a
+ * changed array is reported as a single changed field.
+ * <p>
+ * The diff is written to {@value #FILENAME} in the output directory, so that deployment tooling can redeploy only the
+ * resources that actually changed, rather than every resource on every change. It looks like this:
+ * <pre>
+ * {
+ *   "added" : [ "cache" ],
+ *   "removed" : [ ],
+ *   "changed" : {
+ *     "storage-explorer" : { "added" : [ "/env/CACHE_HOST" ], "removed" : [ ], "changed" : [ "/image" ] }
+ *   }
+ * }
+ * </pre>
+ */
+// Not public API
+final class ManifestDiff {
+
+    static final String FILENAME = "manifest.diff.json";
+
+    private static final String RESOURCES = "resources";
+    private static final String ADDED = "added";
+    private static final String REMOVED = "removed";
+    private static final String CHANGED = "changed";
+
+    private record ResourceChanges(List<String> added, List<String> removed, List<String> changed) { }
+
+    private final List<String> addedResources = new ArrayList<>();
+    private final List<String> removedResources = new ArrayList<>();
+    private final Map<String, ResourceChanges> changedResources = new LinkedHashMap<>();
+
+    private ManifestDiff() { }
+
+    /**
+     * Computes the diff between two manifests. Resources are reported in the order they appear in the manifest they
+     * come from.
+     * @param previous The previous manifest, or null if there is none, in which case every resource is added.
+     * @param current  The current manifest.
+     */
+    static ManifestDiff compute(JsonNode previous, JsonNode current) {
+        final JsonNode previousResources = previous == null ? MissingNode.getInstance() : previous.path(RESOURCES);
+        final JsonNode currentResources = current.path(RESOURCES);
+
+        final ManifestDiff diff = new ManifestDiff();
+        currentResources.fieldNames().forEachRemaining(name -> {
+            final JsonNode previousResource = previousResources.get(name);
+            if (previousResource == null) {
+                diff.addedResources.add(name);
+            } else if (!previousResource.equals(currentResources.get(name))) {
+                final ResourceChanges changes = new ResourceChanges(new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+                compareFields("", previousResource, currentResources.get(name), changes);
+                diff.changedResources.put(name, changes);
+            }
+        });
+        previousResources.fieldNames().forEachRemaining(name -> {
+            if (!currentResources.has(name)) {
+                diff.removedResources.add(name);
+            }
+        });
+        return diff;
+    }
+
+    private static void compareFields(String path, JsonNode previous, JsonNode current, ResourceChanges changes) {
+        if (!previous.isObject() || !current.isObject()) {
+            // scalars, arrays, and fields that changed kind are compared as a whole
+            if (!previous.equals(current)) {
+                changes.changed().add(path);
+            }
+            return;
+        }
+
+        final Iterator<Map.Entry<String, JsonNode>> fields = current.fields();
+        while (fields.hasNext()) {
+            final Map.Entry<String, JsonNode> field = fields.next();
+            final String fieldPath = path + "/" + escape(field.getKey());
+            final JsonNode previousValue = previous.get(field.getKey());
+            if (previousValue == null) {
+                changes.added().add(fieldPath);
+            } else {
+                compareFields(fieldPath, previousValue, field.getValue(), changes);
+            }
+        }
+        previous.fieldNames().forEachRemaining(name -> {
+            if (!current.has(name)) {
+                changes.removed().add(path + "/" + escape(name));
+            }
+        });
+    }
+
+    // see RFC 6901
+    private static String escape(String name) {
+        return name.replace("~", "~0").replace("/", "~1");
+    }
+
+    /**
+     * Indicates whether the two manifests have the same resources.
+     */
+    boolean isEmpty() {
+        return addedResources.isEmpty() && removedResources.isEmpty() && changedResources.isEmpty();
+    }
+
+    List<String> getAddedResources() {
+        return addedResources;
+    }
+
+    List<String> getRemovedResources() {
+        return removedResources;
+    }
+
+    /**
+     * Returns the names of the resources that are in both manifests, but differ.
+     */
+    List<String> getChangedResources() {
+        return List.copyOf(changedResources.keySet());
+    }
+
+    /**
+     * Returns a one-line, human-readable summary of the diff, suitable for logging.
+     */
+    String getSummary() {
+        if (isEmpty()) {
+            return "no resources changed";
+        }
+        return addedResources.size() + " added " + addedResources
+            + ", " + removedResources.size() + " removed " + removedResources
+            + ", " + changedResources.size() + " changed " + changedResources.keySet();
+    }
+
+    ObjectNode toJson(ObjectMapper objectMapper) {
+        final ObjectNode root = objectMapper.createObjectNode();
+        addAll(root.putArray(ADDED), addedResources);
+        addAll(root.putArray(REMOVED), removedResources);
+
+        final ObjectNode changed = root.putObject(CHANGED);
+        changedResources.forEach((name, changes) -> {
+            final ObjectNode resource = changed.putObject(name);
+            addAll(resource.putArray(ADDED), changes.added());
+            addAll(resource.putArray(REMOVED), changes.removed());
+            addAll(resource.putArray(CHANGED), changes.changed());
+        });
+        return root;
+    }
+
+    private static void addAll(ArrayNode array, List<String> values) {
+        values.forEach(array::add);
+    }
+}
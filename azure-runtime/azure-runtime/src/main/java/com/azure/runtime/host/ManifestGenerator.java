@@ -1,35 +1,202 @@
 package com.azure.runtime.host;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.PrintStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
-import java.util.logging.Level;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 import java.util.logging.Logger;
 
 import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.azure.runtime.host.implementation.jfr.ManifestGenerationEvent;
 import com.azure.runtime.host.implementation.utils.json.RelativePathModule;
 import com.azure.runtime.host.implementation.utils.json.CustomSerializerModifier;
+import com.azure.runtime.host.resources.Resource;
+import com.azure.runtime.host.resources.annotations.ResolvedEnvironmentAnnotation;
 import com.azure.runtime.host.resources.traits.ResourceWithLifecycle;
 import com.azure.runtime.host.resources.traits.ResourceWithTemplate;
 import com.azure.runtime.host.utils.FileUtilities;
+import com.azure.runtime.host.utils.FingerprintStore;
 import com.azure.runtime.host.utils.templates.TemplateFileOutput;
-import jakarta.validation.ConstraintViolation;
-import jakarta.validation.Validation;
-import jakarta.validation.Validator;
 
 // Not public API
 class ManifestGenerator {
 
     private static final Logger LOGGER = Logger.getLogger(ManifestGenerator.class.getName());
 
+    static final String MANIFEST_FILENAME = "aspire-manifest.json";
+
+    private static final int OUTPUT_BUFFER_SIZE = 64 * 1024;
+
+    private static final ThreadFactory TEMPLATE_THREAD_FACTORY = runnable -> {
+        Thread thread = new Thread(runnable, "template-processor");
+        thread.setDaemon(true);
+        return thread;
+    };
+
+    private static final ThreadFactory PRECOMMIT_THREAD_FACTORY = runnable -> {
+        Thread thread = new Thread(runnable, "precommit-hook");
+        thread.setDaemon(true);
+        return thread;
+    };
+
     private Path outputPath;
 
-    void generateManifest(AppHost appHost, Path outputPath) {
+    private ManifestPublisher publisher = new JacksonManifestPublisher();
+
+    // When set, the manifest is written to this stream rather than to a file in the output directory
+    private PrintStream manifestStream;
+
+    private boolean incremental;
+
+    private boolean parallelValidation;
+
+    private boolean deploymentWaves;
+
+    private boolean manifestDiff;
+
+    private boolean throwOnFailure;
+
+    // When set, a report of where the time went is written to this path, relative to the output directory
+    private Path reportPath;
+
+    private GenerationReport report = GenerationReport.disabled();
+
+    /**
+     * Specifies the publisher used to write the manifest.
+     */
+    ManifestGenerator withPublisher(ManifestPublisher publisher) {
+        this.publisher = Objects.requireNonNull(publisher);
+        return this;
+    }
+
+    /**
+     * Specifies that the manifest should be written to standard output rather than to the output directory. Template
+     * files are still written to the output directory. While the app host is being configured, anything it prints to
+     * standard output is redirected to standard error, so that the manifest is the only thing on standard output.
+     */
+    ManifestGenerator withManifestToStandardOutput() {
+        this.manifestStream = System.out;
+        return this;
+    }
+
+    /**
+     * Specifies that generation should be incremental: fingerprints of the inputs are persisted in the output
+     * directory, and on the next run any build introspection whose inputs are unchanged is reused rather than being
+     * redone, and any template file or manifest whose content is unchanged is not rewritten. See
+     * {@link FingerprintStore}.
+     */
+    ManifestGenerator withIncremental() {
+        this.incremental = true;
+        return this;
+    }
+
+    /**
+     * Specifies that resources should be validated in parallel, rather than one after another.
+     */
+    ManifestGenerator withParallelValidation() {
+        this.parallelValidation = true;
+        return this;
+    }
+
+    /**
+     * Specifies that the manifest should include the resources grouped into deployment waves (see
+     * {@link ResourceDependencyGraph#getWaves()}), as the {@value JavaAppHostManifest#DEPLOYMENT_WAVES} extension.
+     */
+    ManifestGenerator withDeploymentWaves() {
+        this.deploymentWaves = true;
+        return this;
+    }
+
+    /**
+     * Specifies that, before the manifest is written, it should be compared with the manifest from the previous run (if
+     * any) in the output directory, with the differences written to {@value ManifestDiff#FILENAME} and summarised in
+     * the log. Not supported when the manifest is written to standard output.
+     */
+    ManifestGenerator withManifestDiff() {
+        this.manifestDiff = true;
+        return this;
+    }
+
+    /**
+     * Specifies that when no manifest can be generated - because the App Host configured no resources, or the resources
+     * failed validation - an {@link IllegalStateException} should be thrown, rather than the JVM exiting. This is used
+     * in watch mode, which has to keep running until the problem is fixed.
+     */
+    ManifestGenerator withThrowOnFailure() {
+        this.throwOnFailure = true;
+        return this;
+    }
+
+    /**
+     * Specifies that the wall time, CPU time and allocated bytes of every phase of generation, and of every resource in
+     * the phases that do work per resource, should be measured, written as JSON to the given path, and the slowest
+     * resources summarised in the log. See {@link GenerationReport}.
+     * @param reportPath The path of the report. Relative paths are resolved against the output directory.
+     */
+    ManifestGenerator withReport(Path reportPath) {
+        this.reportPath = Objects.requireNonNull(reportPath);
+        return this;
+    }
+
+    /**
+     * An environment to generate a manifest for, in its own output directory.
+     * @param name          The name of the environment, made available to the App Host.
+     * @param outputPath    The output directory for the manifest and template files of this environment.
+     * @param parameters    The parameters for this environment, made available to the App Host.
+     */
+    record Environment(String name, Path outputPath, Map<String, String> parameters) { }
+
+    /**
+     * Generates the manifests for several environments, one after another, in this JVM. The App Host configures a new
+     * {@link DistributedApplication} for each environment, but anything that doesn't depend on that configuration is
+     * only done once: extensions are discovered once, parsed templates are cached by the template engine, and build
+     * introspection results are shared between the environments (see {@link FingerprintStore#setSharedAcrossRuns}).
+     */
+    void generateManifests(AppHost appHost, List<Environment> environments) {
+        if (manifestStream != null && environments.size() > 1) {
+            throw new IllegalArgumentException("Only one manifest can be written to standard output");
+        }
+
+        FingerprintStore.setSharedAcrossRuns(true);
+        try {
+            for (Environment environment : environments) {
+                LOGGER.info("Generating manifest for environment '" + environment.name() + "' in " + environment.outputPath());
+                generateManifest(appHost, environment);
+            }
+        } finally {
+            FingerprintStore.setSharedAcrossRuns(false);
+        }
+    }
+
+    DistributedApplication generateManifest(AppHost appHost, Path outputPath) {
+        return generateManifest(appHost, new Environment(null, outputPath, Map.of()));
+    }
+
+    private DistributedApplication generateManifest(AppHost appHost, Environment environment) {
+        final Path outputPath = environment.outputPath();
         this.outputPath = outputPath;
 
         File outputDir = outputPath.toFile();
@@ -38,71 +205,164 @@ class ManifestGenerator {
         }
         FileUtilities.setOutputPath(outputPath);
 
-        DistributedApplication app = new DistributedApplication();
-        appHost.configureApplication(app);
-        processTemplates(app, outputPath);
+        final FingerprintStore fingerprints = incremental
+            ? FingerprintStore.open(outputPath)
+            : FingerprintStore.disabled();
 
-        writeManifestToFile(app);
+        if (manifestStream != null) {
+            System.setOut(System.err);
+        }
+        report = reportPath == null ? GenerationReport.disabled() : GenerationReport.create();
+        final ManifestGenerationEvent event = new ManifestGenerationEvent();
+        event.begin();
+        final DistributedApplication app =
+            new DistributedApplication(environment.name(), environment.parameters(), fingerprints);
+        try {
+            report.phase(GenerationReport.CONFIGURE, () -> appHost.configureApplication(app));
+            report.phase(GenerationReport.TEMPLATES, () -> processTemplates(app, outputPath));
+
+            writeManifestToFile(app);
+
+            fingerprints.save();
+            if (report.isEnabled()) {
+                report.write(outputPath.resolve(reportPath), new ObjectMapper());
+            }
+            return app;
+        } finally {
+            if (event.shouldCommit()) {
+                event.environment = environment.name();
+                event.outputDirectory = outputPath.toString();
+                event.resources = app.manifest.getResources().size();
+                event.commit();
+            }
+            if (manifestStream != null) {
+                System.setOut(manifestStream);
+            }
+        }
     }
 
-    private void processTemplates(DistributedApplication app, Path outputPath) {
+    void processTemplates(DistributedApplication app, Path outputPath) {
         LOGGER.info("Processing templates...");
-        app.manifest.getResources().values().stream()
+        final List<ResourceWithTemplate<?>> templateResources = app.manifest.getResources().values().stream()
             .filter(r -> r instanceof ResourceWithTemplate<?>)
-            .map(r -> (ResourceWithTemplate<?>) r)
-            .map(ResourceWithTemplate::processTemplate)
-            .forEach(templateFiles -> templateFiles.forEach(this::writeTemplateFile));
+            .<ResourceWithTemplate<?>>map(r -> (ResourceWithTemplate<?>) r)
+            .toList();
+
+        if (templateResources.isEmpty()) {
+            LOGGER.info("Templates processed");
+            return;
+        }
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(
+                Math.min(templateResources.size(), Runtime.getRuntime().availableProcessors()), TEMPLATE_THREAD_FACTORY)) {
+            // Stage one: render every template in parallel. Rendering only touches the resource being rendered (for
+            // example to set its path), so resources can safely be rendered concurrently. The output path is held in
+            // a thread local, so it has to be carried over to the worker threads.
+            final List<CompletableFuture<List<TemplateFileOutput>>> renders = templateResources.stream()
+                .map(r -> CompletableFuture.supplyAsync(() -> {
+                    FileUtilities.setOutputPath(outputPath);
+                    return report.resource(GenerationReport.TEMPLATES, ((Resource<?>) r).getName(), r::processTemplate);
+                }, executor))
+                .toList();
+
+            // Collect the outputs in resource order, so that if two resources render the same file (e.g. many
+            // projects sharing the same OpenTelemetry Dockerfile) the last one wins, exactly as it did when the
+            // templates were rendered one after another. The outputs of each resource are kept with the manifest too,
+            // as they are part of what the resource deploys.
+            final Map<String, TemplateFileOutput> templateFiles = new LinkedHashMap<>();
+            for (int i = 0; i < renders.size(); i++) {
+                final List<TemplateFileOutput> outputs = join(renders.get(i));
+                app.manifest.templateFiles.put(((Resource<?>) templateResources.get(i)).getName(), outputs);
+                outputs.forEach(templateFile -> templateFiles.put(templateFile.filename(), templateFile));
+            }
+
+            // Stage two: write the (now unique) files asynchronously, and wait for them all before we move on. The
+            // precommit hooks may introspect the files we write (e.g. the generated Eureka project), so the writes
+            // must complete before the manifest is committed and serialized.
+            join(CompletableFuture.allOf(templateFiles.values().stream()
+                .map(templateFile -> CompletableFuture.runAsync(
+                    () -> writeTemplateFile(templateFile, outputPath, app.getFingerprintStore()), executor))
+                .toArray(CompletableFuture[]::new)));
+        }
         LOGGER.info("Templates processed");
     }
 
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            // rethrow the failure from the resource itself, rather than the wrapper
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
     private ObjectMapper prepareObjectMapper(DistributedApplication app) {
         if (app.manifest.isEmpty()) {
             LOGGER.info("No configuration received from AppHost...exiting");
-            System.exit(-1);
+            fail("No configuration received from AppHost");
         }
 
-        // run the precommit lifecycle hook on all resources
-        callLifecyclePrecommitHook(app);
+        // run the precommit lifecycle hook on all resources, validating each wave of resources as it completes
+        final ManifestValidator validator = new ManifestValidator();
+        report.phase(GenerationReport.PRECOMMIT, () -> callLifecyclePrecommitHook(app, validator));
 
         LOGGER.info("Validating models...");
-        // Firstly, disable the info logging messages that are printed by Hibernate Validator
-        Logger.getLogger("org.hibernate.validator.internal.util.Version").setLevel(Level.OFF);
-
-        // Get the logger for the Hibernate Validator class
-        Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
-
-        Set<ConstraintViolation<JavaAppHostManifest>> violations = validator.validate(app.manifest);
+        List<String> violations = report.phase(GenerationReport.VALIDATE, () -> validator.getViolations(app.manifest));
         if (!violations.isEmpty()) {
-            for (ConstraintViolation<JavaAppHostManifest> violation : violations) {
-                LOGGER.warning(violation.getMessage());
+            for (String violation : violations) {
+                LOGGER.warning(violation);
             }
             LOGGER.warning("Failed...exiting");
-            System.exit(-1);
+            fail(violations.size() + " validation failure(s)");
         } else {
             // object is valid, continue processing...
             LOGGER.info("Models validated...");
         }
 
-        // Jackson ObjectMapper is used to serialize the JavaAppHostManifest object to a JSON string,
-        // and write to a file named "aspire-manifest.json".
+        report.phase(GenerationReport.RESOLVE, () -> resolveEnvironments(app));
+
+        if (deploymentWaves) {
+            report.phase(GenerationReport.DEPLOYMENT_WAVES, () -> computeDeploymentWaves(app));
+        }
+
+//        printAnnotations(System.out, app);
+
+        return createObjectMapper();
+    }
+
+    private void fail(String message) {
+        if (throwOnFailure) {
+            throw new IllegalStateException(message);
+        }
+        System.exit(-1);
+    }
+
+    // Jackson ObjectMapper is used to serialize the JavaAppHostManifest object to a JSON string,
+    // and write to a file named "aspire-manifest.json".
+    static ObjectMapper createObjectMapper() {
         ObjectMapper objectMapper = new ObjectMapper();
 
         SimpleModule module = new SimpleModule();
         module.setSerializerModifier(new CustomSerializerModifier());
         objectMapper.registerModule(module);
         objectMapper.registerModule(new RelativePathModule());
-
-//        printAnnotations(System.out, app);
-
         return objectMapper;
     }
 
     // This is more-or-less for unit testing purposes
     String writeManifestToSring(DistributedApplication app) {
-        ObjectMapper objectMapper = prepareObjectMapper(app);
+        return writeManifestToSring(app, prepareObjectMapper(app));
+    }
+
+    String writeManifestToSring(DistributedApplication app, ObjectMapper objectMapper) {
         LOGGER.info("Writing manifest to string");
         try {
-            return objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(app.manifest);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            publisher.publish(app.manifest, objectMapper, outputPath, out);
+            return out.toString(StandardCharsets.UTF_8);
         } catch (IOException e) {
             e.printStackTrace();
             return "";
@@ -113,20 +373,101 @@ class ManifestGenerator {
 
     void writeManifestToFile(DistributedApplication app) {
         ObjectMapper objectMapper = prepareObjectMapper(app);
+        report.phase(GenerationReport.WRITE, () -> publishManifest(app, objectMapper));
+    }
+
+    private void publishManifest(DistributedApplication app, ObjectMapper objectMapper) {
+        if (manifestStream != null) {
+            LOGGER.info("Writing manifest to standard output");
+            try {
+                // standard output is not ours to close, so we only flush it
+                OutputStream out = new BufferedOutputStream(manifestStream, OUTPUT_BUFFER_SIZE);
+                publisher.publish(app.manifest, objectMapper, outputPath, out);
+                out.flush();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            LOGGER.info("Manifest written to standard output");
+            return;
+        }
+
+        final FingerprintStore fingerprints = app.getFingerprintStore();
+        if (fingerprints.isEnabled() || manifestDiff) {
+            // We have to serialize the manifest to know whether (and how) it changed, but if it didn't we leave the
+            // file (and its timestamp) alone, so that anything watching the output directory isn't triggered needlessly.
+            final String manifest = writeManifestToSring(app, objectMapper);
+            final Path manifestPath = outputPath.resolve(MANIFEST_FILENAME);
+            if (manifestDiff) {
+                writeManifestDiff(manifestPath, manifest, objectMapper);
+            }
+            final String fingerprint = FingerprintStore.fingerprint().with(manifest).build();
+            if (fingerprints.isUnchanged(MANIFEST_FILENAME, fingerprint) && Files.isRegularFile(manifestPath)) {
+                LOGGER.info("Manifest unchanged, not rewriting file");
+                return;
+            }
+
+            LOGGER.info("Writing manifest to file");
+            try {
+                Files.writeString(manifestPath, manifest);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            LOGGER.info("Manifest written to file");
+            return;
+        }
+
         LOGGER.info("Writing manifest to file");
-        try {
-            objectMapper.writerWithDefaultPrettyPrinter()
-                .writeValue(new File(outputPath.toFile(), "aspire-manifest.json"), app.manifest);
+        try (OutputStream out = openOutputStream(outputPath.resolve(MANIFEST_FILENAME))) {
+            publisher.publish(app.manifest, objectMapper, outputPath, out);
         } catch (IOException e) {
             e.printStackTrace();
         }
         LOGGER.info("Manifest written to file");
     }
 
-    private void writeTemplateFile(TemplateFileOutput templateFile) {
+    private void writeManifestDiff(Path manifestPath, String manifest, ObjectMapper objectMapper) {
+        LOGGER.info("Comparing manifest with the previous manifest");
+        JsonNode previous = null;
+        if (Files.isRegularFile(manifestPath)) {
+            try {
+                previous = objectMapper.readTree(manifestPath.toFile());
+            } catch (IOException e) {
+                // an unreadable manifest is no better than no manifest at all, so everything counts as added
+                LOGGER.warning("Unable to read previous manifest, treating all resources as added: " + e.getMessage());
+            }
+        } else {
+            LOGGER.info("No previous manifest, treating all resources as added");
+        }
+
+        try {
+            final ManifestDiff diff = ManifestDiff.compute(previous, objectMapper.readTree(manifest));
+            // always written, even if empty, so that a stale diff from an earlier run is never picked up
+            objectMapper.writer().writeValue(outputPath.resolve(ManifestDiff.FILENAME).toFile(), diff.toJson(objectMapper));
+            LOGGER.info("Manifest diff: " + diff.getSummary());
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static OutputStream openOutputStream(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path,
+            StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        return new BufferedOutputStream(Channels.newOutputStream(channel), OUTPUT_BUFFER_SIZE);
+    }
+
+    private void writeTemplateFile(TemplateFileOutput templateFile, Path outputPath, FingerprintStore fingerprints) {
         try {
             Path path = Paths.get(outputPath.toString() + "/" + templateFile.filename());
 
+            // in incremental mode, leave alone any file whose content is unchanged since the previous run
+            if (fingerprints.isEnabled()) {
+                final String fingerprint = FingerprintStore.fingerprint().with(templateFile.content()).build();
+                if (fingerprints.isUnchanged("template:" + templateFile.filename(), fingerprint)
+                        && Files.isRegularFile(path)) {
+                    return;
+                }
+            }
+
             // ensure the parent directories exist
             Files.createDirectories(path.getParent());
             Files.write(path, templateFile.content().getBytes());
@@ -135,26 +476,91 @@ class ManifestGenerator {
         }
     }
 
-    private void callLifecyclePrecommitHook(DistributedApplication app) {
-        Set<ResourceWithLifecycle> processedResources = new HashSet<>();
-        Set<ResourceWithLifecycle> currentResources = new HashSet<>(app.manifest.getResources().values());
+    void callLifecyclePrecommitHook(DistributedApplication app, ManifestValidator validator) {
+        final Set<ResourceWithLifecycle> processedResources = Collections.newSetFromMap(new IdentityHashMap<>());
+        final Path hookOutputPath = FileUtilities.getOutputPath();
+
+        // the hooks run on virtual threads, unless we're measuring them, which the JVM can only do for platform threads
+        try (ExecutorService executor = report.isEnabled()
+                ? Executors.newCachedThreadPool(PRECOMMIT_THREAD_FACTORY)
+                : Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Resource<?>> wave;
+            while (!(wave = getUnprocessedResources(app, processedResources)).isEmpty()) {
+                processedResources.addAll(wave);
 
-        while (!currentResources.isEmpty()) {
-            // Create a snapshot of current resources to iterate over
-            Set<ResourceWithLifecycle> snapshot = new HashSet<>(currentResources);
-            for (ResourceWithLifecycle resource : snapshot) {
-                if (!processedResources.contains(resource)) {
-                    resource.onResourcePrecommit();
-                    processedResources.add(resource);
+                // Start the hooks of every resource in this wave. Each resource gets its own view of the executor,
+                // so that any changes its hook makes to the set of resources are recorded against it.
+                final List<List<Runnable>> changes = new ArrayList<>(wave.size());
+                final CompletableFuture<?>[] hooks = new CompletableFuture<?>[wave.size()];
+                app.manifest.beginPrecommit();
+                try {
+                    for (int i = 0; i < wave.size(); i++) {
+                        final List<Runnable> resourceChanges = Collections.synchronizedList(new ArrayList<>());
+                        changes.add(resourceChanges);
+
+                        final String resourceName = wave.get(i).getName();
+                        final Executor resourceExecutor = task -> executor.execute(() -> {
+                            if (hookOutputPath != null) {
+                                FileUtilities.setOutputPath(hookOutputPath);
+                            }
+                            report.resource(GenerationReport.PRECOMMIT, resourceName,
+                                () -> app.manifest.runDeferringChanges(resourceChanges, task));
+                        });
+                        hooks[i] = wave.get(i).onResourcePrecommitAsync(resourceExecutor);
+                    }
+                    join(CompletableFuture.allOf(hooks));
+                } finally {
+                    app.manifest.endPrecommit();
                 }
-                currentResources.remove(resource);
+
+                // Now apply the changes, in the order of the resources that made them, so that the result does not
+                // depend on which hook happened to finish first. Any resources added here form the next wave.
+                changes.forEach(resourceChanges -> resourceChanges.forEach(Runnable::run));
+
+                // The resources in this wave are now in their final state, so they can be validated. Resources that
+                // were substituted away by the changes above no longer need validating.
+                final List<Resource<?>> committed = wave.stream()
+                    .filter(resource -> app.manifest.getResources().get(resource.getName()) == resource)
+                    .toList();
+                validator.validate(committed, parallelValidation ? executor : null);
             }
-            // Update currentResources to include only new resources added during processing
-            currentResources.addAll(app.manifest.getResources().values());
-            currentResources.removeAll(processedResources);
         }
     }
 
+    /**
+     * Runs the environment callbacks of every resource once, now that the resources are in their final state, and
+     * records the results on the resources, so that serializing the manifest - which may happen more than once, e.g. to
+     * diff or fingerprint it - and building the dependency graph read the results rather than running the callbacks
+     * again.
+     */
+    static void resolveEnvironments(DistributedApplication app) {
+        for (Resource<?> resource : app.manifest.getResources().values()) {
+            final ResolvedEnvironmentAnnotation environment = ResolvedEnvironmentAnnotation.resolve(resource);
+            if (!environment.isEmpty()) {
+                resource.withAnnotation(environment);
+            }
+        }
+        app.environmentsResolved = true;
+    }
+
+    private void computeDeploymentWaves(DistributedApplication app) {
+        try {
+            app.manifest.deploymentWaves = app.getDependencyGraph().getWaves().stream()
+                .map(wave -> wave.stream().map(Resource::getName).toList())
+                .toList();
+        } catch (IllegalStateException e) {
+            // the manifest is still perfectly usable without the waves, so this isn't fatal
+            LOGGER.warning("Unable to compute deployment waves: " + e.getMessage());
+        }
+    }
+
+    private static List<Resource<?>> getUnprocessedResources(DistributedApplication app,
+                                                             Set<ResourceWithLifecycle> processedResources) {
+        return app.manifest.getResources().values().stream()
+            .filter(resource -> !processedResources.contains(resource))
+            .toList();
+    }
+
     private void printAnnotations(PrintStream out, DistributedApplication app) {
         app.manifest.getResources().values().forEach(resource -> {
             out.println("Resource: " + resource.getName());
@@ -0,0 +1,61 @@
+package com.azure.runtime.host;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+
+/**
+ * A manifest publisher is responsible for writing a {@link JavaAppHostManifest} out as JSON. The {@value #DEFAULT} and
+ * {@value #STREAMING} publishers must produce the same bytes for the same manifest - they differ only in how they get
+ * there. The {@value #CANONICAL} publisher produces a different, canonical form of the same manifest.
+ */
+// Not public API
+interface ManifestPublisher {
+
+    /**
+     * The name of the publisher that hands the entire manifest to Jackson in a single call.
+     */
+    String DEFAULT = "default";
+
+    /**
+     * The name of the publisher that walks the resources once, writing each straight to a {@code JsonGenerator}.
+     */
+    String STREAMING = "streaming";
+
+    /**
+     * The name of the publisher that writes the manifest in canonical form: sorted, compact, and with a content hash
+     * for every resource.
+     */
+    String CANONICAL = "canonical";
+
+    /**
+     * Writes the manifest to the given output stream. Implementations must not close the stream.
+     *
+     * @param manifest      The manifest to write.
+     * @param objectMapper  The object mapper, fully configured with the serializers required for resources.
+     * @param outputPath    The output directory, which the paths in the manifest are relative to, or null if the
+     *                      manifest is not being generated into an output directory.
+     * @param out           The stream to write the manifest to.
+     * @throws IOException If the manifest could not be written.
+     */
+    void publish(JavaAppHostManifest manifest, ObjectMapper objectMapper, Path outputPath, OutputStream out)
+        throws IOException;
+
+    /**
+     * Returns the publisher with the given name.
+     *
+     * @param name The name of the publisher, either {@value #DEFAULT}, {@value #STREAMING} or {@value #CANONICAL}.
+     * @return The publisher with the given name.
+     * @throws IllegalArgumentException If there is no publisher with the given name.
+     */
+    static ManifestPublisher fromName(String name) {
+        return switch (name) {
+            case DEFAULT -> new JacksonManifestPublisher();
+            case STREAMING -> new StreamingManifestPublisher();
+            case CANONICAL -> new CanonicalManifestPublisher();
+            default -> throw new IllegalArgumentException("Unknown manifest publisher '" + name + "'");
+        };
+    }
+}
@@ -0,0 +1,429 @@
+package com.azure.runtime.host;
+
+import com.azure.runtime.host.resources.AzureBicepResource;
+import com.azure.runtime.host.resources.Container;
+import com.azure.runtime.host.resources.DockerFile;
+import com.azure.runtime.host.resources.Executable;
+import com.azure.runtime.host.resources.Resource;
+import com.azure.runtime.host.resources.ResourceType;
+import com.azure.runtime.host.resources.Value;
+import com.azure.runtime.host.resources.annotations.ArgsAnnotation;
+import com.azure.runtime.host.resources.annotations.EndpointAnnotation;
+import com.azure.runtime.host.resources.annotations.EnvironmentAnnotation;
+import com.azure.runtime.host.resources.annotations.EnvironmentCallbackAnnotation;
+import com.azure.runtime.host.resources.annotations.KeyValueAnnotation;
+import com.azure.runtime.host.resources.properties.Protocol;
+import com.azure.runtime.host.resources.properties.Scheme;
+import com.azure.runtime.host.resources.properties.Transport;
+import com.azure.runtime.host.resources.references.ReferenceExpression;
+import com.azure.runtime.host.resources.traits.ResourceWithConnectionString;
+import com.azure.runtime.host.utils.templates.TemplateFileOutput;
+import com.fasterxml.jackson.annotation.JsonAnyGetter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * Reads an {@code aspire-manifest.json} back into {@link Resource resources}, so that a manifest that has already been
+ * generated can be diffed, merged with the manifests of other App Hosts, or reused, without running
+ * {@link AppHost#configureApplication(DistributedApplication)} again.
+ * <p>
+ * The manifest is read with a streaming parser, one resource at a time: each resource is handed to the consumer as soon
+ * as it has been read, and nothing else of the manifest is kept, so memory use does not grow with the size of the
+ * manifest. The resource types that the core module defines are rebuilt, along with their environment variables,
+ * endpoints, arguments and build arguments:
+ * <ul>
+ *     <li>{@code container.v0} as a {@link Container},</li>
+ *     <li>{@code dockerfile.v0} as a {@link DockerFile},</li>
+ *     <li>{@code executable.v0} as an {@link Executable},</li>
+ *     <li>{@code value.v0} as a {@link Value} (or, if it has a connection string, as a value resource that is a
+ *     {@link ResourceWithConnectionString}), and</li>
+ *     <li>{@code azure.bicep.v0} as an {@link AzureBicepResource}, whose Bicep file is the one the manifest points
+ *     to.</li>
+ * </ul>
+ * Resources of any other type - those defined by extensions - are skipped, as are any properties of the above that
+ * the core module does not know about, with a warning.
+ * <p>
+ * Environment variables and connection strings are read back as the manifest expressions they were written as (e.g.
+ * {@code {eureka.bindings.http.url}}), rather than as references to the resources they name. Paths are made relative
+ * to the working directory again, as they are when they are given to the API, so a resource that is read back is
+ * written to a manifest in the same output directory unchanged.
+ */
+public final class ManifestReader {
+    private static final Logger LOGGER = Logger.getLogger(ManifestReader.class.getName());
+
+    // only used for the structured values of a resource (parameters, volumes, ...), never for the manifest as a whole
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private static final String EXECUTION_DIR = System.getProperty("user.dir");
+
+    /**
+     * Reads the manifest in the given file, handing each resource to the given consumer as soon as it has been read,
+     * in the order they appear in the manifest.
+     *
+     * @param manifest The manifest file.
+     * @param consumer Receives each resource.
+     * @throws IOException If the manifest cannot be read, or is not a valid manifest.
+     */
+    public void read(Path manifest, Consumer<? super Resource<?>> consumer) throws IOException {
+        final Path manifestDirectory = manifest.toAbsolutePath().getParent();
+
+        try (JsonParser parser = OBJECT_MAPPER.createParser(manifest.toFile())) {
+            expect(parser, parser.nextToken(), JsonToken.START_OBJECT, "the manifest");
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String field = parser.currentName();
+                parser.nextToken();
+                if ("resources".equals(field)) {
+                    readResources(parser, manifestDirectory, consumer);
+                } else {
+                    // $schema, deployment waves and the like
+                    parser.skipChildren();
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads all the resources in the manifest in the given file. Prefer {@link #read(Path, Consumer)} for large
+     * manifests, which does not hold on to the resources.
+     *
+     * @param manifest The manifest file.
+     * @return The resources, in the order they appear in the manifest.
+     * @throws IOException If the manifest cannot be read, or is not a valid manifest.
+     */
+    public List<Resource<?>> readAll(Path manifest) throws IOException {
+        final List<Resource<?>> resources = new ArrayList<>();
+        read(manifest, resources::add);
+        return resources;
+    }
+
+    private void readResources(JsonParser parser, Path manifestDirectory, Consumer<? super Resource<?>> consumer) throws IOException {
+        expect(parser, parser.currentToken(), JsonToken.START_OBJECT, "the resources");
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String name = parser.currentName();
+            expect(parser, parser.nextToken(), JsonToken.START_OBJECT, "resource '" + name + "'");
+
+            final Resource<?> resource = readResource(parser, name).toResource(manifestDirectory);
+            if (resource != null) {
+                consumer.accept(resource);
+            }
+        }
+    }
+
+    private ResourceEntry readResource(JsonParser parser, String name) throws IOException {
+        final ResourceEntry entry = new ResourceEntry(name);
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String field = parser.currentName();
+            final JsonToken token = parser.nextToken();
+            switch (field) {
+                case "env" -> {
+                    entry.hasEnvironment = true;
+                    readStrings(parser, field, entry.environment);
+                }
+                case "buildArgs" -> readObjects(parser, field, entry.buildArgs);
+                case "params" -> readObjects(parser, field, entry.parameters);
+                case "args" -> entry.args.addAll(parser.readValueAs(List.class));
+                case "bindings" -> readBindings(parser, entry.bindings);
+                case "volumes" -> entry.volumes = parser.readValueAs(Container.Volume[].class);
+                case "bindMounts" -> entry.bindMounts = parser.readValueAs(Container.BindMount[].class);
+                default -> {
+                    if (token.isScalarValue()) {
+                        entry.properties.put(field, parser.getValueAsString());
+                    } else {
+                        entry.unsupported.add(field);
+                        parser.skipChildren();
+                    }
+                }
+            }
+        }
+        return entry;
+    }
+
+    private void readStrings(JsonParser parser, String field, Map<String, String> values) throws IOException {
+        expect(parser, parser.currentToken(), JsonToken.START_OBJECT, "'" + field + "'");
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String key = parser.currentName();
+            parser.nextToken();
+            values.put(key, parser.getValueAsString());
+        }
+    }
+
+    private void readObjects(JsonParser parser, String field, Map<String, Object> values) throws IOException {
+        expect(parser, parser.currentToken(), JsonToken.START_OBJECT, "'" + field + "'");
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String key = parser.currentName();
+            parser.nextToken();
+            values.put(key, parser.readValueAs(Object.class));
+        }
+    }
+
+    private void readBindings(JsonParser parser, List<EndpointAnnotation> bindings) throws IOException {
+        expect(parser, parser.currentToken(), JsonToken.START_OBJECT, "'bindings'");
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String name = parser.currentName();
+            expect(parser, parser.nextToken(), JsonToken.START_OBJECT, "binding '" + name + "'");
+
+            Scheme scheme = null;
+            Protocol protocol = null;
+            Transport transport = null;
+            Integer port = null;
+            Integer targetPort = null;
+            boolean external = false;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String field = parser.currentName();
+                parser.nextToken();
+                switch (field) {
+                    case "scheme" -> scheme = parseEnum(parser, Scheme.values());
+                    case "protocol" -> protocol = parseEnum(parser, Protocol.values());
+                    case "transport" -> transport = parseEnum(parser, Transport.values());
+                    case "port" -> port = parser.getIntValue();
+                    case "targetPort" -> targetPort = parser.getIntValue();
+                    case "external" -> external = parser.getBooleanValue();
+                    default -> {
+                        LOGGER.warning("Ignoring unsupported property '" + field + "' of binding '" + name + "'");
+                        parser.skipChildren();
+                    }
+                }
+            }
+            if (scheme == null) {
+                throw new JsonParseException(parser, "Binding '" + name + "' has no scheme");
+            }
+            bindings.add(new EndpointAnnotation(protocol, scheme, transport, name, port, targetPort, external, true));
+        }
+    }
+
+    private static <E extends Enum<E>> E parseEnum(JsonParser parser, E[] values) throws IOException {
+        final String text = parser.getValueAsString();
+        for (E value : values) {
+            // the enums are written by their toString
+            if (value.toString().equals(text)) {
+                return value;
+            }
+        }
+        throw new JsonParseException(parser, "Unknown " + values[0].getDeclaringClass().getSimpleName() + " '" + text + "'");
+    }
+
+    private static void expect(JsonParser parser, JsonToken actual, JsonToken expected, String what) throws IOException {
+        if (actual != expected) {
+            throw new JsonParseException(parser, "Expected " + what + " to be " + expected + ", but found " + actual);
+        }
+    }
+
+    /**
+     * Everything that was read for a single resource. Resources can only be created once their type is known, and the
+     * type need not be the first property.
+     */
+    private static final class ResourceEntry {
+        private final String name;
+        private final Map<String, String> properties = new LinkedHashMap<>();
+        private final Map<String, String> environment = new LinkedHashMap<>();
+        private boolean hasEnvironment;
+        private final Map<String, Object> buildArgs = new LinkedHashMap<>();
+        private final Map<String, Object> parameters = new LinkedHashMap<>();
+        private final List<Object> args = new ArrayList<>();
+        private final List<EndpointAnnotation> bindings = new ArrayList<>();
+        private final List<String> unsupported = new ArrayList<>();
+        private Container.Volume[] volumes = new Container.Volume[0];
+        private Container.BindMount[] bindMounts = new Container.BindMount[0];
+
+        private ResourceEntry(String name) {
+            this.name = name;
+        }
+
+        private Resource<?> toResource(Path manifestDirectory) {
+            final String type = properties.remove("type");
+            if (type == null) {
+                LOGGER.warning("Skipping resource '" + name + "', which has no type");
+                return null;
+            }
+
+            final ResourceType resourceType = ResourceType.fromString(type);
+            final Resource<?> resource;
+            if (resourceType == ResourceType.CONTAINER) {
+                final Container<?> container = new Container<>(name, properties.remove("image"));
+                final String entryPoint = properties.remove("entrypoint");
+                if (entryPoint != null) {
+                    container.withEntryPoint(entryPoint);
+                }
+                for (Container.Volume volume : volumes) {
+                    container.withVolume(volume);
+                }
+                for (Container.BindMount bindMount : bindMounts) {
+                    container.withBindMount(bindMount);
+                }
+                volumes = new Container.Volume[0];
+                bindMounts = new Container.BindMount[0];
+                resource = container;
+            } else if (resourceType == ResourceType.DOCKER_FILE) {
+                final DockerFile<?> dockerFile = new DockerFile<>(name,
+                    toRootRelative(manifestDirectory, properties.remove("path")),
+                    toRootRelative(manifestDirectory, properties.remove("context")));
+                buildArgs.forEach((key, value) -> dockerFile.withAnnotation(new KeyValueAnnotation("buildArgs", key, value)));
+                buildArgs.clear();
+                resource = dockerFile;
+            } else if (resourceType == ResourceType.EXECUTABLE) {
+                resource = new Executable<>(name, properties.remove("workingDirectory"), properties.remove("command"));
+            } else if (resourceType == ResourceType.VALUE) {
+                final String connectionString = properties.remove("connectionString");
+                if (connectionString != null) {
+                    resource = new ConnectionStringValue(name, connectionString, new LinkedHashMap<>(properties));
+                } else if (properties.isEmpty()) {
+                    LOGGER.warning("Skipping value resource '" + name + "', which has no values");
+                    return null;
+                } else {
+                    final Map.Entry<String, String> first = properties.entrySet().iterator().next();
+                    final Value<?> value = new Value<>(name, first.getKey(), first.getValue());
+                    value.getProperties().putAll(properties);
+                    resource = value;
+                }
+                properties.clear();
+            } else if (resourceType == ResourceType.AZURE_BICEP) {
+                final BicepResource bicep = new BicepResource(name, properties.remove("path"), properties.remove("connectionString"));
+                bicep.withParameters(parameters);
+                parameters.clear();
+                resource = bicep;
+            } else {
+                LOGGER.warning("Skipping resource '" + name + "' of unsupported type '" + type + "'");
+                return null;
+            }
+
+            environment.forEach((key, value) -> resource.withAnnotation(new EnvironmentAnnotation(key, value)));
+            if (hasEnvironment && environment.isEmpty()) {
+                // an empty environment is still written to the manifest, as long as the resource has a callback
+                resource.withAnnotation(new EnvironmentCallbackAnnotation("env", context -> { }));
+            }
+            bindings.forEach(resource::withAnnotation);
+            if (!args.isEmpty()) {
+                resource.withAnnotation(ArgsAnnotation.createArgs(args));
+            }
+
+            // whatever is left is not something this type of resource has
+            unsupported.forEach(this::ignore);
+            properties.keySet().forEach(this::ignore);
+            if (!buildArgs.isEmpty()) {
+                ignore("buildArgs");
+            }
+            if (!parameters.isEmpty()) {
+                ignore("params");
+            }
+            if (volumes.length > 0) {
+                ignore("volumes");
+            }
+            if (bindMounts.length > 0) {
+                ignore("bindMounts");
+            }
+            return resource;
+        }
+
+        private void ignore(String field) {
+            LOGGER.warning("Ignoring unsupported property '" + field + "' of resource '" + name + "'");
+        }
+
+        private static String toRootRelative(Path manifestDirectory, String path) {
+            if (path == null) {
+                return null;
+            }
+            // the manifest has the paths relative to the output directory, see RelativePathSerializer
+            final Path absolutePath = manifestDirectory.resolve(path).normalize();
+            final String rootRelative = Paths.get(EXECUTION_DIR).toAbsolutePath().relativize(absolutePath).toString();
+            return rootRelative.isEmpty() ? "." : rootRelative;
+        }
+    }
+
+    /**
+     * A value resource with a connection string, which the manifest only has as an expression.
+     */
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    private static final class ConnectionStringValue extends Resource<ConnectionStringValue>
+                                                     implements ResourceWithConnectionString<ConnectionStringValue> {
+        private final ReferenceExpression connectionString;
+        private final Map<String, String> properties;
+
+        private ConnectionStringValue(String name, String connectionString, Map<String, String> properties) {
+            super(ResourceType.VALUE, name);
+            this.connectionString = ReferenceExpression.create(connectionString);
+            this.properties = properties;
+        }
+
+        @JsonAnyGetter
+        public Map<String, String> getProperties() {
+            return properties;
+        }
+
+        @Override
+        public ReferenceExpression getConnectionStringExpression() {
+            return connectionString;
+        }
+
+        @JsonIgnore
+        @Override
+        public String getValueExpression() {
+            return connectionString.getValueExpression();
+        }
+
+        @Override
+        public ConnectionStringValue self() {
+            return this;
+        }
+    }
+
+    /**
+     * An Azure Bicep resource whose Bicep file already exists - the one the manifest points to - so there is no
+     * template to process. Its connection string, if it has one, is only known as an expression.
+     */
+    private static final class BicepResource extends AzureBicepResource<BicepResource>
+                                             implements ResourceWithConnectionString<BicepResource> {
+        private final ReferenceExpression connectionString;
+
+        private BicepResource(String name, String path, String connectionString) {
+            super(name, path);
+            this.connectionString = connectionString == null ? null : ReferenceExpression.create(connectionString);
+        }
+
+        @Override
+        public List<TemplateFileOutput> processTemplate() {
+            return List.of();
+        }
+
+        @Override
+        public ReferenceExpression getConnectionStringExpression() {
+            return connectionString;
+        }
+
+        @JsonIgnore
+        @Override
+        public String getConnectionString() {
+            return connectionString == null ? null : connectionString.getValue();
+        }
+
+        @JsonIgnore
+        @Override
+        public String getValueExpression() {
+            return connectionString == null ? null : connectionString.getValueExpression();
+        }
+
+        @JsonIgnore
+        @Override
+        public List<Object> getReferences() {
+            return connectionString == null ? List.of() : List.of(connectionString);
+        }
+
+        @Override
+        public BicepResource self() {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.azure.runtime.host;
+
+import com.azure.runtime.host.resources.Resource;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Validates the resources of the manifest one at a time, remembering the outcome for each resource, so that the
+ * manifest can be validated incrementally as resources reach their final state (i.e. once their precommit hook has
+ * run), rather than walking the whole graph at the end. Resources that have already been validated are not validated
+ * again when the manifest as a whole is checked.
+ * <p>
+ * The (expensive to build) {@link ValidatorFactory} is created once, and shared for the lifetime of the JVM.
+ */
+// Not public API
+class ManifestValidator {
+
+    private static final class FactoryHolder {
+        // We keep a reference to this logger, as its level would be lost if it were garbage collected
+        private static final Logger VERSION_LOGGER = Logger.getLogger("org.hibernate.validator.internal.util.Version");
+
+        private static final ValidatorFactory FACTORY;
+
+        static {
+            // disable the info logging messages that are printed by Hibernate Validator
+            VERSION_LOGGER.setLevel(Level.OFF);
+            FACTORY = Validation.buildDefaultValidatorFactory();
+        }
+    }
+
+    private final Validator validator = FactoryHolder.FACTORY.getValidator();
+
+    // The violation messages of each validated resource
+    private final Map<Resource<?>, List<String>> results = Collections.synchronizedMap(new IdentityHashMap<>());
+
+    /**
+     * Validates the given resource, replacing any previous outcome for it.
+     */
+    void validate(Resource<?> resource) {
+        final List<String> messages = validator.validate(resource).stream()
+            .map(ConstraintViolation::getMessage)
+            .toList();
+        results.put(resource, messages);
+    }
+
+    /**
+     * Validates the given resources, in parallel on the given executor if one is provided.
+     */
+    void validate(Collection<? extends Resource<?>> resources, Executor executor) {
+        if (executor == null) {
+            resources.forEach(this::validate);
+            return;
+        }
+
+        CompletableFuture.allOf(resources.stream()
+            .map(resource -> CompletableFuture.runAsync(() -> validate(resource), executor))
+            .toArray(CompletableFuture[]::new))
+            .join();
+    }
+
+    /**
+     * Returns the violation messages for all resources in the manifest, in manifest order. Any resource that has not
+     * yet been validated is validated now.
+     */
+    List<String> getViolations(JavaAppHostManifest manifest) {
+        final List<String> violations = new ArrayList<>();
+        for (Resource<?> resource : manifest.getResources().values()) {
+            List<String> messages = results.get(resource);
+            if (messages == null) {
+                validate(resource);
+                messages = results.get(resource);
+            }
+            violations.addAll(messages);
+        }
+        return violations;
+    }
+}
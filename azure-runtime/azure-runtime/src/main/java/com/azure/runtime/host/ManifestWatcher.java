@@ -0,0 +1,234 @@
+package com.azure.runtime.host;
+
+import com.azure.runtime.host.resources.Resource;
+import com.azure.runtime.host.resources.traits.ResourceWithSources;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.CodeSource;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Keeps the App Host running after the manifest has been generated, watching the files the resources are generated
+ * from (see {@link ResourceWithSources}), and regenerating the manifest whenever they change. As the JVM stays warm -
+ * classes are loaded, templates are parsed, and the validator is built - and generation is incremental, so that only
+ * the projects whose build files changed are introspected again, and only the files whose content changed are
+ * rewritten, a regeneration takes a fraction of the time of a fresh run. A regeneration that fails (e.g. because a
+ * resource fails validation) is logged, and the previous manifest is left in place until the next change.
+ * <p>
+ * The classes of the App Host itself are watched too, but as they cannot be reloaded into the running JVM, a change to
+ * them only results in a warning that watch mode has to be restarted.
+ */
+// Not public API
+class ManifestWatcher {
+    private static final Logger LOGGER = Logger.getLogger(ManifestWatcher.class.getName());
+
+    // how long the files have to be left alone before the manifest is regenerated, so that e.g. a 'save all' in an IDE
+    // or a 'git checkout' results in a single regeneration
+    private static final long DEBOUNCE_MILLIS = 300;
+
+    // directories that are not worth watching, as they hold build output or metadata rather than sources
+    private static final Set<String> IGNORED_DIRECTORIES = Set.of(".git", ".idea", "target", "build", "node_modules");
+
+    private final AppHost appHost;
+    private final ManifestGenerator generator;
+    private final Path outputPath;
+
+    private Map<WatchKey, Path> watchedDirectories = new HashMap<>();
+
+    // The directories that are only watched because single files in them are sources, with those files. Changes to any
+    // other file in such a directory are ignored.
+    private Map<Path, Set<Path>> watchedFiles = new HashMap<>();
+
+    private WatchService watchService;
+    private Path appHostClasses;
+
+    ManifestWatcher(AppHost appHost, ManifestGenerator generator, Path outputPath) {
+        this.appHost = appHost;
+        this.generator = generator.withIncremental().withThrowOnFailure();
+        this.outputPath = outputPath.toAbsolutePath().normalize();
+    }
+
+    /**
+     * Generates the manifest, and then regenerates it on every change, until the thread is interrupted.
+     */
+    void run() {
+        try (WatchService watchService = FileSystems.getDefault().newWatchService()) {
+            this.watchService = watchService;
+            this.appHostClasses = findAppHostClasses();
+            watchSources(generator.generateManifest(appHost, outputPath));
+            LOGGER.info("Watching " + watchedDirectories.size() + " directories for changes...");
+
+            while (true) {
+                final Set<Path> changes = new LinkedHashSet<>();
+                collectChanges(watchService.take(), changes);
+                WatchKey key;
+                while ((key = watchService.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    collectChanges(key, changes);
+                }
+                if (changes.isEmpty()) {
+                    continue;
+                }
+
+                if (appHostClasses != null && changes.stream().anyMatch(p -> p.startsWith(appHostClasses))) {
+                    LOGGER.warning("The App Host has been recompiled - restart watch mode to pick up the changes to it");
+                    changes.removeIf(p -> p.startsWith(appHostClasses));
+                    if (changes.isEmpty()) {
+                        continue;
+                    }
+                }
+
+                LOGGER.info(changes.size() + " file(s) changed, regenerating manifest...");
+                final long start = System.nanoTime();
+                try {
+                    watchSources(generator.generateManifest(appHost, outputPath));
+                    LOGGER.info("Manifest regenerated in " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+                } catch (RuntimeException e) {
+                    // keep watching the same sources, so that fixing the problem triggers another regeneration
+                    LOGGER.warning("Unable to regenerate manifest, waiting for further changes: " + e.getMessage());
+                    e.printStackTrace();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to watch for changes", e);
+        }
+    }
+
+    /**
+     * Watches the sources of the given application (and the classes of the App Host), and stops watching any directory
+     * that is no longer needed, e.g. because a resource was removed from the App Host.
+     */
+    private void watchSources(DistributedApplication app) {
+        final Map<WatchKey, Path> directories = new HashMap<>();
+        final Map<Path, Set<Path>> files = new HashMap<>();
+        if (appHostClasses != null) {
+            registerRecursively(appHostClasses, directories);
+        }
+        for (Resource<?> resource : app.manifest.getResources().values()) {
+            if (resource instanceof ResourceWithSources withSources) {
+                for (String source : withSources.getSourcePaths()) {
+                    final Path path = Paths.get(source).toAbsolutePath().normalize();
+                    if (Files.isDirectory(path)) {
+                        registerRecursively(path, directories);
+                    } else if (path.getParent() != null && Files.isDirectory(path.getParent())) {
+                        files.computeIfAbsent(path.getParent(), dir -> new HashSet<>()).add(path);
+                    }
+                }
+            }
+        }
+
+        // Only directories can be watched, so for a single file we watch the directory that it is in, and filter the
+        // events down to the file - unless the whole directory is being watched anyway.
+        files.keySet().removeAll(new HashSet<>(directories.values()));
+        files.keySet().forEach(dir -> register(dir, directories));
+
+        watchedDirectories.forEach((key, dir) -> {
+            if (!directories.containsKey(key)) {
+                key.cancel();
+            }
+        });
+        watchedDirectories = directories;
+        watchedFiles = files;
+    }
+
+    private void registerRecursively(Path root, Map<WatchKey, Path> directories) {
+        try {
+            Files.walkFileTree(root, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                    if (!dir.equals(root) && isIgnored(dir)) {
+                        return FileVisitResult.SKIP_SUBTREE;
+                    }
+                    register(dir, directories);
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            LOGGER.warning("Unable to watch " + root + ": " + e.getMessage());
+        }
+    }
+
+    private void register(Path dir, Map<WatchKey, Path> directories) {
+        if (isOutput(dir)) {
+            return;
+        }
+        try {
+            // registering a directory again returns the same key, so this is harmless for directories we already watch
+            WatchKey key = dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+            directories.put(key, dir);
+        } catch (IOException e) {
+            LOGGER.warning("Unable to watch " + dir + ": " + e.getMessage());
+        }
+    }
+
+    private void collectChanges(WatchKey key, Set<Path> changes) {
+        final Path dir = watchedDirectories.get(key);
+        final Set<Path> files = dir == null ? null : watchedFiles.get(dir);
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (dir == null) {
+                continue;
+            }
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                // we lost track of what exactly changed, but something did
+                changes.add(dir);
+                continue;
+            }
+
+            final Path changed = dir.resolve((Path) event.context());
+            if (isOutput(changed) || (files != null && !files.contains(changed))) {
+                continue;
+            }
+            if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(changed) && !isIgnored(changed)) {
+                registerRecursively(changed, watchedDirectories);
+            }
+            changes.add(changed);
+        }
+        if (!key.reset()) {
+            // the directory no longer exists
+            watchedDirectories.remove(key);
+        }
+    }
+
+    private boolean isOutput(Path path) {
+        // we would otherwise trigger ourselves by writing the manifest, templates and fingerprints
+        return path.startsWith(outputPath);
+    }
+
+    private static boolean isIgnored(Path dir) {
+        return dir.getFileName() != null && IGNORED_DIRECTORIES.contains(dir.getFileName().toString());
+    }
+
+    private Path findAppHostClasses() {
+        try {
+            final CodeSource codeSource = appHost.getClass().getProtectionDomain().getCodeSource();
+            if (codeSource == null) {
+                return null;
+            }
+            final Path path = Paths.get(codeSource.getLocation().toURI());
+            // the App Host can only be recompiled in place when it is run from a directory of classes, not from a jar
+            return Files.isDirectory(path) ? path.toAbsolutePath().normalize() : null;
+        } catch (URISyntaxException | SecurityException e) {
+            return null;
+        }
+    }
+}
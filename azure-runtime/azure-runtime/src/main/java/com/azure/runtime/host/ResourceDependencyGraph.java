@@ -0,0 +1,261 @@
+package com.azure.runtime.host;
+
+import com.azure.runtime.host.resources.Resource;
+import com.azure.runtime.host.resources.annotations.ArgsAnnotation;
+import com.azure.runtime.host.resources.annotations.EndpointReferenceAnnotation;
+import com.azure.runtime.host.resources.annotations.ResolvedEnvironmentAnnotation;
+import com.azure.runtime.host.resources.traits.ResourceWithConnectionString;
+import com.azure.runtime.host.resources.traits.ResourceWithParent;
+import com.azure.runtime.host.resources.traits.ValueWithReferences;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * The dependencies between the resources of a distributed application. A resource depends on another resource if it
+ * references it - through its environment (e.g. a connection string or endpoint reference), its arguments, its
+ * connection string expression, or by being its child (see {@link ResourceWithParent}).
+ * <p>
+ * The graph is a snapshot: it is built from the resources as they are when {@link DistributedApplication#getDependencyGraph()}
+ * is called, and does not change as the application changes. It can only be built once the resources are in their final
+ * state and their environments have been resolved, i.e. not while the App Host is configuring the application. References to resources that are no longer part of the
+ * application (for example, because they were substituted by another resource with the same name) are resolved by
+ * name, and references to resources that are not part of the application at all are ignored.
+ * <p>
+ * Usage example:
+ *
+ * {@snippet lang="java" :
+ * ResourceDependencyGraph graph = app.getDependencyGraph();
+ *
+ * // who consumes the blob storage?
+ * graph.getDependents("storage-explorer-blobs").forEach(r -> System.out.println(r.getName()));
+ *
+ * // in which order can the resources be provisioned?
+ * List<List<Resource<?>>> waves = graph.getWaves();
+ * }
+ */
+public final class ResourceDependencyGraph {
+
+    // All maps are keyed by resource name, and ordered as the resources are in the application
+    private final Map<String, Resource<?>> resources;
+    private final Map<String, Set<String>> dependencies;
+    private final Map<String, Set<String>> dependents;
+
+    private ResourceDependencyGraph(Map<String, Resource<?>> resources,
+                                    Map<String, Set<String>> dependencies,
+                                    Map<String, Set<String>> dependents) {
+        this.resources = resources;
+        this.dependencies = dependencies;
+        this.dependents = dependents;
+    }
+
+    /**
+     * Builds the dependency graph of the given resources.
+     */
+    static ResourceDependencyGraph build(Collection<Resource<?>> resourceCollection) {
+        final Map<String, Resource<?>> resources = new LinkedHashMap<>();
+        for (Resource<?> resource : resourceCollection) {
+            resources.put(resource.getName(), resource);
+        }
+
+        final Map<String, Set<String>> dependencies = new LinkedHashMap<>();
+        final Map<String, Set<String>> dependents = new LinkedHashMap<>();
+        for (String name : resources.keySet()) {
+            dependencies.put(name, new LinkedHashSet<>());
+            dependents.put(name, new LinkedHashSet<>());
+        }
+
+        for (Resource<?> resource : resources.values()) {
+            final String name = resource.getName();
+            for (Resource<?> referenced : findReferencedResources(resource)) {
+                final String referencedName = referenced.getName();
+                if (referencedName.equals(name) || !resources.containsKey(referencedName)) {
+                    continue;
+                }
+                dependencies.get(name).add(referencedName);
+                dependents.get(referencedName).add(name);
+            }
+        }
+
+        return new ResourceDependencyGraph(resources, dependencies, dependents);
+    }
+
+    /**
+     * Returns the resources that the given resource depends on (i.e. consumes), in application order.
+     * @param resourceName The name of the resource.
+     * @return The resources that the given resource depends on.
+     * @throws IllegalArgumentException If there is no resource with the given name in the graph.
+     */
+    public List<Resource<?>> getDependencies(String resourceName) {
+        return toResources(getEdges(dependencies, resourceName));
+    }
+
+    /**
+     * Returns the resources that depend on (i.e. consume) the given resource, in application order.
+     * @param resourceName The name of the resource.
+     * @return The resources that depend on the given resource.
+     * @throws IllegalArgumentException If there is no resource with the given name in the graph.
+     */
+    public List<Resource<?>> getDependents(String resourceName) {
+        return toResources(getEdges(dependents, resourceName));
+    }
+
+    /**
+     * Finds a dependency cycle in the graph, if there is one.
+     * @return The resources that make up a cycle, where each resource depends on the next and the last depends on the
+     * first, or an empty optional if the graph has no cycles.
+     */
+    public Optional<List<Resource<?>>> findCycle() {
+        // 0 = unvisited, 1 = on the current path, 2 = done
+        final Map<String, Integer> state = new HashMap<>();
+        final List<String> path = new ArrayList<>();
+        for (String name : resources.keySet()) {
+            List<String> cycle = findCycle(name, state, path);
+            if (cycle != null) {
+                return Optional.of(toResources(cycle));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Groups the resources into waves, such that every resource only depends on resources in earlier waves. The
+     * resources within a wave are independent of each other, so they can be provisioned and started in parallel, once
+     * all the resources in the earlier waves are available. Within a wave, resources are in application order.
+     * @return The waves of resources, in the order they should be deployed.
+     * @throws IllegalStateException If the graph has a dependency cycle.
+     */
+    public List<List<Resource<?>>> getWaves() {
+        final Map<String, Integer> remainingDependencies = new HashMap<>();
+        dependencies.forEach((name, edges) -> remainingDependencies.put(name, edges.size()));
+
+        // the position of every resource in the application, so that each wave can be put in application order
+        // without scanning all the resources again
+        final Map<String, Integer> positions = new HashMap<>();
+        for (String name : resources.keySet()) {
+            positions.put(name, positions.size());
+        }
+
+        final List<List<Resource<?>>> waves = new ArrayList<>();
+        List<String> wave = resources.keySet().stream()
+            .filter(name -> remainingDependencies.get(name) == 0)
+            .toList();
+
+        int placed = 0;
+        while (!wave.isEmpty()) {
+            waves.add(toResources(wave));
+            placed += wave.size();
+
+            // a dependent joins the next wave once all of its dependencies have been placed
+            final List<String> nextWave = new ArrayList<>();
+            for (String name : wave) {
+                for (String dependent : dependents.get(name)) {
+                    if (remainingDependencies.merge(dependent, -1, Integer::sum) == 0) {
+                        nextWave.add(dependent);
+                    }
+                }
+            }
+            // keep application order within the wave
+            nextWave.sort(Comparator.comparingInt(positions::get));
+            wave = nextWave;
+        }
+
+        if (placed != resources.size()) {
+            final String cycle = findCycle().orElseThrow().stream()
+                .map(Resource::getName)
+                .reduce((a, b) -> a + " -> " + b)
+                .orElse("");
+            throw new IllegalStateException("Resources have a dependency cycle: " + cycle);
+        }
+        return Collections.unmodifiableList(waves);
+    }
+
+    private List<String> findCycle(String name, Map<String, Integer> state, List<String> path) {
+        if (state.getOrDefault(name, 0) == 2) {
+            return null;
+        }
+
+        // A depth-first search with an explicit stack, so that long chains of dependencies can't overflow the call
+        // stack. The stack holds, for each resource on the current path, the dependencies that are still to be visited.
+        final Deque<Iterator<String>> stack = new ArrayDeque<>();
+        state.put(name, 1);
+        path.add(name);
+        stack.push(dependencies.get(name).iterator());
+        while (!stack.isEmpty()) {
+            final Iterator<String> remaining = stack.peek();
+            if (!remaining.hasNext()) {
+                stack.pop();
+                state.put(path.removeLast(), 2);
+                continue;
+            }
+
+            final String dependency = remaining.next();
+            final int current = state.getOrDefault(dependency, 0);
+            if (current == 1) {
+                return new ArrayList<>(path.subList(path.indexOf(dependency), path.size()));
+            }
+            if (current == 0) {
+                state.put(dependency, 1);
+                path.add(dependency);
+                stack.push(dependencies.get(dependency).iterator());
+            }
+        }
+        return null;
+    }
+
+    private Set<String> getEdges(Map<String, Set<String>> edges, String resourceName) {
+        final Set<String> result = edges.get(resourceName);
+        if (result == null) {
+            throw new IllegalArgumentException("Resource with name " + resourceName + " not found");
+        }
+        return result;
+    }
+
+    private List<Resource<?>> toResources(Collection<String> names) {
+        return names.stream().<Resource<?>>map(resources::get).toList();
+    }
+
+    /**
+     * Finds every resource directly referenced by the given resource.
+     */
+    private static Collection<Resource<?>> findReferencedResources(Resource<?> resource) {
+        final Set<Resource<?>> referenced = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        if (resource instanceof ResourceWithParent<?> child && child.getParent() != null) {
+            referenced.add(child.getParent());
+        }
+
+        if (resource instanceof ResourceWithConnectionString<?> withConnectionString) {
+            referenced.addAll(ValueWithReferences.findReferencedResources(
+                withConnectionString.getConnectionStringExpression()));
+        }
+
+        for (EndpointReferenceAnnotation<?> annotation : resource.getAnnotations(EndpointReferenceAnnotation.class)) {
+            referenced.add(annotation.getResource());
+        }
+
+        // the graph is only built once the environments are resolved, and a resource without a snapshot has an empty
+        // environment, so the callbacks never have to be run here
+        ResolvedEnvironmentAnnotation.find(resource)
+            .ifPresent(environment -> referenced.addAll(environment.getReferences()));
+
+        for (ArgsAnnotation annotation : resource.getAnnotations(ArgsAnnotation.class)) {
+            referenced.addAll(ValueWithReferences.findReferencedResources(annotation.getArgs()));
+        }
+
+        return referenced;
+    }
+}
@@ -0,0 +1,277 @@
+package com.azure.runtime.host;
+
+import com.azure.runtime.host.resources.Resource;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * The resources of the manifest, keyed by name, in the order they were added. This is a doubly-linked list of nodes
+ * with a name index on top, which means that - unlike with a {@link java.util.LinkedHashMap} - a resource can be
+ * replaced in place, or have other resources inserted directly after it, in constant time. This matters because
+ * resources routinely substitute themselves during precommit (e.g. a microservice project becoming a Dockerfile), and
+ * doing that by rebuilding the map made precommit quadratic in the number of resources.
+ * <p>
+ * To everything else (Jackson, the validator, the publishers) this is simply an ordered {@code Map}. It is not
+ * thread-safe: changes to the set of resources are only ever made from a single thread.
+ */
+// Not public API
+class ResourceRegistry extends AbstractMap<String, Resource<?>> {
+
+    private static final class Node implements Map.Entry<String, Resource<?>> {
+        private Resource<?> resource;
+        private Node previous;
+        private Node next;
+
+        private Node(Resource<?> resource) {
+            this.resource = resource;
+        }
+
+        @Override
+        public String getKey() {
+            return resource.getName();
+        }
+
+        @Override
+        public Resource<?> getValue() {
+            return resource;
+        }
+
+        @Override
+        public Resource<?> setValue(Resource<?> value) {
+            throw new UnsupportedOperationException("Use ResourceRegistry.replace to change a resource");
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Map.Entry<?, ?> e
+                && Objects.equals(getKey(), e.getKey()) && Objects.equals(getValue(), e.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(getKey()) ^ Objects.hashCode(getValue());
+        }
+
+        @Override
+        public String toString() {
+            return getKey() + "=" + getValue();
+        }
+    }
+
+    private final Map<String, Node> index = new HashMap<>();
+
+    private Node head;
+    private Node tail;
+
+    // for fail-fast iteration, as with the standard collections
+    private int modCount;
+
+    private Set<Map.Entry<String, Resource<?>>> entrySet;
+
+    @Override
+    public int size() {
+        return index.size();
+    }
+
+    @Override
+    public boolean containsKey(Object name) {
+        return index.containsKey(name);
+    }
+
+    @Override
+    public Resource<?> get(Object name) {
+        Node node = index.get(name);
+        return node == null ? null : node.resource;
+    }
+
+    /**
+     * Appends the given resource, or if a resource with the same name is already registered, replaces it in place.
+     */
+    @Override
+    public Resource<?> put(String name, Resource<?> resource) {
+        checkName(name, resource);
+        Node node = index.get(name);
+        if (node != null) {
+            Resource<?> previous = node.resource;
+            node.resource = resource;
+            return previous;
+        }
+
+        link(new Node(resource), tail);
+        return null;
+    }
+
+    @Override
+    public Resource<?> remove(Object name) {
+        Node node = index.get(name);
+        if (node == null) {
+            return null;
+        }
+        unlink(node);
+        return node.resource;
+    }
+
+    @Override
+    public void clear() {
+        index.clear();
+        head = tail = null;
+        modCount++;
+    }
+
+    /**
+     * Inserts the given resource directly after the resource with the given name.
+     * @throws IllegalArgumentException If there is no resource with the given name, or there already is a resource
+     *                                  with the same name as the resource being inserted.
+     */
+    void insertAfter(String name, Resource<?> resource) {
+        Node node = index.get(name);
+        if (node == null) {
+            throw new IllegalArgumentException("Resource with name " + name + " not found");
+        }
+        if (index.containsKey(resource.getName())) {
+            throw new IllegalArgumentException("Resource with name " + resource.getName() + " already exists");
+        }
+        link(new Node(resource), node);
+    }
+
+    /**
+     * Replaces the resource with the given name by the given resources, in the same position. The first replacement
+     * takes over the position of the old resource, and the rest follow directly after it, in order. This costs
+     * O(number of replacements), regardless of the number of registered resources.
+     * @throws IllegalArgumentException If there is no resource with the given name, or any of the replacements has
+     *                                  the same name as another registered resource.
+     */
+    void replace(String name, Resource<?>... replacements) {
+        Node node = index.get(name);
+        if (node == null) {
+            throw new IllegalArgumentException("Resource with name " + name + " not found");
+        }
+
+        // check everything up front, so that a failed replacement leaves the registry untouched
+        Set<String> replacementNames = new HashSet<>();
+        for (Resource<?> replacement : replacements) {
+            String replacementName = replacement.getName();
+            if (!replacementNames.add(replacementName) || (!replacementName.equals(name) && index.containsKey(replacementName))) {
+                throw new IllegalArgumentException("Resource with name " + replacementName + " already exists");
+            }
+        }
+
+        // link each replacement after the previous one, starting from the old node, and then drop the old node
+        index.remove(name);
+        Node last = node;
+        for (Resource<?> replacement : replacements) {
+            Node replacementNode = new Node(replacement);
+            link(replacementNode, last);
+            last = replacementNode;
+        }
+        detach(node);
+    }
+
+    @Override
+    public Set<Map.Entry<String, Resource<?>>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new AbstractSet<>() {
+                @Override
+                public Iterator<Map.Entry<String, Resource<?>>> iterator() {
+                    return new NodeIterator();
+                }
+
+                @Override
+                public int size() {
+                    return index.size();
+                }
+            };
+        }
+        return entrySet;
+    }
+
+    // Links the node after the given node, or at the head if the given node is null
+    private void link(Node node, Node after) {
+        node.previous = after;
+        node.next = after == null ? head : after.next;
+        if (node.previous == null) {
+            head = node;
+        } else {
+            node.previous.next = node;
+        }
+        if (node.next == null) {
+            tail = node;
+        } else {
+            node.next.previous = node;
+        }
+        index.put(node.getKey(), node);
+        modCount++;
+    }
+
+    private void unlink(Node node) {
+        index.remove(node.getKey());
+        detach(node);
+    }
+
+    private void detach(Node node) {
+        if (node.previous == null) {
+            head = node.next;
+        } else {
+            node.previous.next = node.next;
+        }
+        if (node.next == null) {
+            tail = node.previous;
+        } else {
+            node.next.previous = node.previous;
+        }
+        modCount++;
+    }
+
+    private static void checkName(String name, Resource<?> resource) {
+        Objects.requireNonNull(resource);
+        if (!resource.getName().equals(name)) {
+            throw new IllegalArgumentException("Resource " + resource.getName() + " cannot be registered as " + name);
+        }
+    }
+
+    private final class NodeIterator implements Iterator<Map.Entry<String, Resource<?>>> {
+        private Node next = head;
+        private Node current;
+        private int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Map.Entry<String, Resource<?>> next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            current = next;
+            next = next.next;
+            return current;
+        }
+
+        @Override
+        public void remove() {
+            if (current == null) {
+                throw new IllegalStateException();
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            unlink(current);
+            current = null;
+            expectedModCount = modCount;
+        }
+    }
+}
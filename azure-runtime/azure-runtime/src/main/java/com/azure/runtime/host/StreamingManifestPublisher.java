@@ -0,0 +1,56 @@
+package com.azure.runtime.host;
+
+import com.azure.runtime.host.resources.Resource;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * A publisher that walks the manifest resources exactly once, writing each resource straight to a single
+ * {@link JsonGenerator}. The manifest envelope is written by hand, so Jackson never has to introspect
+ * {@link JavaAppHostManifest} or build a map serializer for the resources - it only ever sees one resource at a time.
+ * <p>
+ * The output is byte-for-byte identical to {@link JacksonManifestPublisher}: the generator is created with the same
+ * default pretty printer, and each resource is written through a writer that has no pretty printer of its own, so the
+ * generator's indentation state carries through from the envelope into the resources.
+ */
+// Not public API
+class StreamingManifestPublisher implements ManifestPublisher {
+
+    @Override
+    public void publish(JavaAppHostManifest manifest, ObjectMapper objectMapper, Path outputPath, OutputStream out)
+            throws IOException {
+        // We deliberately do not use the pretty-printing writer to write the resources, as it would install a fresh
+        // pretty printer (with no nesting state) on the generator for every value it writes.
+        final ObjectWriter resourceWriter = objectMapper.writer()
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        try (JsonGenerator gen = objectMapper.writerWithDefaultPrettyPrinter()
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .createGenerator(out)) {
+            gen.writeStartObject();
+            gen.writeStringField("$schema", JavaAppHostManifest.SCHEMA);
+            gen.writeFieldName("resources");
+            gen.writeStartObject();
+
+            for (Map.Entry<String, Resource<?>> entry : manifest.getResources().entrySet()) {
+                gen.writeFieldName(entry.getKey());
+                resourceWriter.writeValue(gen, entry.getValue());
+            }
+            gen.writeEndObject();
+
+            if (manifest.deploymentWaves != null) {
+                gen.writeFieldName(JavaAppHostManifest.DEPLOYMENT_WAVES);
+                resourceWriter.writeValue(gen, manifest.deploymentWaves);
+            }
+
+            gen.writeEndObject();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.azure.runtime.host.implementation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A small, precompiled string template supporting only {@code ${name}} placeholders. The template is parsed once into
+ * alternating literal and placeholder segments, with each placeholder bound to the index of a named parameter, so
+ * evaluating it is nothing more than appending strings into a (reused, per-thread) {@link StringBuilder}.
+ * <p>
+ * This exists for the tiny strings in {@link TemplateStrings} that we evaluate for every endpoint reference of every
+ * resource - running these through FreeMarker meant parsing a brand-new template on every call. Real file templates
+ * should continue to use the {@link com.azure.runtime.host.utils.templates.TemplateEngine}.
+ */
+final class PlaceholderTemplate {
+    private static final String PLACEHOLDER_START = "${";
+    private static final String PLACEHOLDER_END = "}";
+
+    private static final ThreadLocal<StringBuilder> BUILDER = ThreadLocal.withInitial(() -> new StringBuilder(128));
+
+    private final String template;
+
+    // literals.length == parameterIndexes.length + 1, and the output is literals[0], param, literals[1], param, ...
+    private final String[] literals;
+    private final int[] parameterIndexes;
+    private final String[] parameterNames;
+
+    private PlaceholderTemplate(String template, String[] literals, int[] parameterIndexes, String[] parameterNames) {
+        this.template = template;
+        this.literals = literals;
+        this.parameterIndexes = parameterIndexes;
+        this.parameterNames = parameterNames;
+    }
+
+    /**
+     * Compiles the given template.
+     *
+     * @param template          The template, containing zero or more {@code ${name}} placeholders.
+     * @param parameterNames    The names of the parameters, in the order their values will be passed to
+     *                          {@link #evaluate(String...)}. Every placeholder must name one of these parameters.
+     * @return The compiled template.
+     * @throws IllegalArgumentException If a placeholder is unterminated, or names an unknown parameter.
+     */
+    static PlaceholderTemplate compile(String template, String... parameterNames) {
+        Objects.requireNonNull(template, "template cannot be null");
+        List<String> parameterNameList = Arrays.asList(parameterNames);
+
+        List<String> literals = new ArrayList<>();
+        List<Integer> parameterIndexes = new ArrayList<>();
+
+        int position = 0;
+        int start;
+        while ((start = template.indexOf(PLACEHOLDER_START, position)) >= 0) {
+            int end = template.indexOf(PLACEHOLDER_END, start + PLACEHOLDER_START.length());
+            if (end < 0) {
+                throw new IllegalArgumentException("Unterminated placeholder in template '" + template + "'");
+            }
+
+            String name = template.substring(start + PLACEHOLDER_START.length(), end);
+            int parameterIndex = parameterNameList.indexOf(name);
+            if (parameterIndex < 0) {
+                throw new IllegalArgumentException("Unknown placeholder '" + name + "' in template '" + template + "'");
+            }
+
+            literals.add(template.substring(position, start));
+            parameterIndexes.add(parameterIndex);
+            position = end + PLACEHOLDER_END.length();
+        }
+        literals.add(template.substring(position));
+
+        return new PlaceholderTemplate(template,
+            literals.toArray(new String[0]),
+            parameterIndexes.stream().mapToInt(Integer::intValue).toArray(),
+            parameterNames.clone());
+    }
+
+    /**
+     * Evaluates the template with the given parameter values.
+     *
+     * @param values The parameter values, in the order the parameter names were given when compiling the template.
+     * @return The evaluated template.
+     */
+    String evaluate(String... values) {
+        if (values.length != parameterNames.length) {
+            throw new IllegalArgumentException("Template '" + template + "' expects " + parameterNames.length
+                + " parameters, but received " + values.length);
+        }
+
+        StringBuilder sb = BUILDER.get();
+        sb.setLength(0);
+
+        sb.append(literals[0]);
+        for (int i = 0; i < parameterIndexes.length; i++) {
+            int parameterIndex = parameterIndexes[i];
+            String value = values[parameterIndex];
+            if (value == null) {
+                throw new IllegalArgumentException("Value for placeholder '" + parameterNames[parameterIndex]
+                    + "' in template '" + template + "' cannot be null");
+            }
+            sb.append(value).append(literals[i + 1]);
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return template;
+    }
+}
@@ -9,9 +9,9 @@ import com.azure.runtime.host.resources.references.EndpointReference;
 import com.azure.runtime.host.resources.traits.ResourceWithEndpoints;
 import com.azure.runtime.host.resources.traits.ResourceWithEnvironment;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Consumer;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 public class ResourceUtilities {
@@ -25,13 +25,11 @@ public class ResourceUtilities {
      ***************************************************************************************/
 
     public static <T extends ResourceAnnotation> Stream<T> getAnnotationsOfTypeAsStream(Resource<?> resource, Class<T> annotationClass) {
-        return resource.getAnnotations().stream()
-            .filter(annotationClass::isInstance)
-            .map(annotationClass::cast);
+        return resource.getAnnotations(annotationClass).stream();
     }
 
     public static <T extends ResourceAnnotation> List<T> getAnnotationsOfType(Resource<?> resource, Class<T> annotationClass) {
-        return getAnnotationsOfTypeAsStream(resource, annotationClass).collect(Collectors.toList());
+        return new ArrayList<>(resource.getAnnotations(annotationClass));
     }
 
     public static <T extends Resource<?>> T applyAnnotation(T resource, ResourceAnnotation annotation) {
@@ -51,7 +49,7 @@ public class ResourceUtilities {
     }
 
     public static List<EndpointAnnotation> getEndpointAnnotations(Resource<?> resource) {
-        return getEndpointAnnotationsAsStream(resource).collect(Collectors.toList());
+        return getAnnotationsOfType(resource, EndpointAnnotation.class);
     }
 
 //    public static void withHttpEndpoint(Resource<?> resource,
@@ -62,14 +60,7 @@ public class ResourceUtilities {
     public static void withEndpoint(Resource<?> resource,
                                     Transport transport, Scheme scheme, String name, Integer port, Integer targetPort, boolean isExternal, boolean isProxied, String env) {
 
-        List<ResourceAnnotation> annotations = resource.getAnnotations();
-
-        boolean endpointExists = annotations.stream()
-            .filter(EndpointAnnotation.class::isInstance)
-            .map(EndpointAnnotation.class::cast)
-            .anyMatch(sb -> sb.getName().equalsIgnoreCase(name));
-
-        if (endpointExists) {
+        if (resource.getEndpointAnnotation(name).isPresent()) {
             // TODO better exception
             throw new RuntimeException(String.format("Endpoint with name '%s' already exists", name));
         }
@@ -112,12 +103,13 @@ public class ResourceUtilities {
         // on the resource, if there is then it means we have already been here before and we can just
         // skip this and note the endpoint that we want to apply to the environment in the future
         // in a single pass. There is one EndpointReferenceAnnotation per endpoint source.
-        EndpointReferenceAnnotation<?> endpointReferenceAnnotation = _thisResource.getAnnotations().stream()
-            .filter(annotation -> annotation instanceof EndpointReferenceAnnotation &&
-                ((EndpointReferenceAnnotation<?>) annotation).getResource().equals(resourceWithEndpoints))
-            .map(annotation -> (EndpointReferenceAnnotation<?>) annotation)
-            .findFirst()
-            .orElse(null);
+        EndpointReferenceAnnotation<?> endpointReferenceAnnotation = null;
+        for (EndpointReferenceAnnotation<?> annotation : _thisResource.getAnnotations(EndpointReferenceAnnotation.class)) {
+            if (annotation.getResource().equals(resourceWithEndpoints)) {
+                endpointReferenceAnnotation = annotation;
+                break;
+            }
+        }
 
         if (endpointReferenceAnnotation == null) {
             endpointReferenceAnnotation = new EndpointReferenceAnnotation<>((Resource<?>) resourceWithEndpoints);
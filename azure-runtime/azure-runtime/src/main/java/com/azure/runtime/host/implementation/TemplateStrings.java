@@ -14,34 +14,35 @@ public class TemplateStrings {
 
     public static final String CONNECTION_STRING = "ConnectionStrings__${resourceName}";
 
+    // These strings are evaluated for every endpoint reference of every resource, so they are compiled once rather than
+    // being handed to the template engine on each call.
+    private static final PlaceholderTemplate BINDING_TEMPLATE =
+        PlaceholderTemplate.compile(BINDING_STRING, "resource.name", "endpointName", "property");
+
+    private static final PlaceholderTemplate SERVICES_TEMPLATE =
+        PlaceholderTemplate.compile(SERVICES_STRING, "resource.name", "endpointName");
+
+    private static final PlaceholderTemplate CONNECTION_STRING_TEMPLATE =
+        PlaceholderTemplate.compile(CONNECTION_STRING, "resourceName");
+
     public static String evaluateBinding(Resource<?> resource, String endpointName, String property) {
-        return evaluate(BINDING_STRING, Map.of(
-            "resource", resource,
-            "endpointName", endpointName,
-            "property", property));
+        return BINDING_TEMPLATE.evaluate(resource.getName(), endpointName, property);
     }
 
     public static String evaluateService(String resourceName) {
-        return evaluate(SERVICES_STRING, Map.of(
-            "resource.name", resourceName,
-            "endpointName", "default"));
+        return SERVICES_TEMPLATE.evaluate(resourceName, "default");
     }
 
     public static String evaluateService(Resource<?> resource) {
-        return evaluate(SERVICES_STRING, Map.of(
-            "resource", resource,
-            "endpointName", "default"));
+        return SERVICES_TEMPLATE.evaluate(resource.getName(), "default");
     }
 
     public static String evaluateService(Resource<?> resource, String endpointName) {
-        return evaluate(SERVICES_STRING, Map.of(
-            "resource", resource,
-            "endpointName", endpointName));
+        return SERVICES_TEMPLATE.evaluate(resource.getName(), endpointName);
     }
 
     public static String evaluateConnectionString(String resourceName) {
-        return evaluate(CONNECTION_STRING, Map.of(
-            "resourceName", resourceName));
+        return CONNECTION_STRING_TEMPLATE.evaluate(resourceName);
     }
 
     public static String evaluate(String template, Map<String, Object> context) {
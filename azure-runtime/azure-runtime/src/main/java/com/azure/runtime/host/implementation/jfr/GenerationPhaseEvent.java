@@ -0,0 +1,23 @@
+package com.azure.runtime.host.implementation.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A phase of manifest generation, such as rendering the templates or running the precommit hooks.
+ */
+@Name(GenerationPhaseEvent.NAME)
+@Label("Generation Phase")
+@Description("A phase of manifest generation")
+@Category({"Azure Runtime", "App Host"})
+@StackTrace(false)
+public final class GenerationPhaseEvent extends Event {
+    public static final String NAME = "com.azure.runtime.host.GenerationPhase";
+
+    @Label("Phase")
+    public String phase;
+}
@@ -0,0 +1,31 @@
+package com.azure.runtime.host.implementation.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The generation of a manifest, from configuring the App Host to writing the manifest, for one environment. The
+ * {@link GenerationPhaseEvent phases} of the generation are nested within it.
+ */
+@Name(ManifestGenerationEvent.NAME)
+@Label("Manifest Generation")
+@Description("The generation of a manifest for one environment")
+@Category({"Azure Runtime", "App Host"})
+@StackTrace(false)
+public final class ManifestGenerationEvent extends Event {
+    public static final String NAME = "com.azure.runtime.host.ManifestGeneration";
+
+    @Label("Environment")
+    public String environment;
+
+    @Label("Output Directory")
+    public String outputDirectory;
+
+    @Label("Resources")
+    @Description("The number of resources in the manifest")
+    public int resources;
+}
@@ -0,0 +1,31 @@
+package com.azure.runtime.host.implementation.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The substitution of a resource in the manifest by one or more other resources, e.g. of a project that turned out to
+ * have a Dockerfile by a Dockerfile resource.
+ */
+@Name(ResourceSubstitutionEvent.NAME)
+@Label("Resource Substitution")
+@Description("The substitution of a resource in the manifest by other resources")
+@Category({"Azure Runtime", "App Host"})
+@StackTrace(false)
+public final class ResourceSubstitutionEvent extends Event {
+    public static final String NAME = "com.azure.runtime.host.ResourceSubstitution";
+
+    @Label("Resource")
+    public String resource;
+
+    @Label("Resource Type")
+    public Class<?> resourceType;
+
+    @Label("Substitutes")
+    @Description("The names of the resources that took its place")
+    public String substitutes;
+}
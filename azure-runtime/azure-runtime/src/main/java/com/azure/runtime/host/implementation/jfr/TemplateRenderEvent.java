@@ -0,0 +1,35 @@
+package com.azure.runtime.host.implementation.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The rendering of a single template file.
+ */
+@Name(TemplateRenderEvent.NAME)
+@Label("Template Render")
+@Description("The rendering of a template file")
+@Category({"Azure Runtime", "App Host"})
+@StackTrace(false)
+public final class TemplateRenderEvent extends Event {
+    public static final String NAME = "com.azure.runtime.host.TemplateRender";
+
+    @Label("Template")
+    @Description("The path of the template, relative to the class that owns it")
+    public String template;
+
+    @Label("Owner")
+    @Description("The class that owns the template")
+    public Class<?> owner;
+
+    @Label("Output File")
+    public String outputFile;
+
+    @Label("Output Length")
+    @Description("The number of characters rendered")
+    public int outputLength;
+}
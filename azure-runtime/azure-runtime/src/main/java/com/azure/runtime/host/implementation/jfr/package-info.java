@@ -0,0 +1,7 @@
+/**
+ * JDK Flight Recorder events for manifest generation, so that generation can be profiled with
+ * {@code -XX:StartFlightRecording}, and its timeline correlated with e.g. garbage collection and class loading. The
+ * events are only populated when they are enabled (see {@link jdk.jfr.Event#shouldCommit()}), so they cost next to
+ * nothing when nothing is being recorded.
+ */
+package com.azure.runtime.host.implementation.jfr;
@@ -5,130 +5,166 @@ import com.azure.runtime.host.resources.Resource;
 import com.azure.runtime.host.resources.annotations.*;
 import com.azure.runtime.host.resources.properties.Scheme;
 import com.azure.runtime.host.resources.references.ReferenceExpression;
-import com.azure.runtime.host.resources.traits.ManifestExpressionProvider;
 import com.azure.runtime.host.resources.traits.ResourceWithArguments;
 import com.azure.runtime.host.resources.traits.ResourceWithConnectionString;
-import com.azure.runtime.host.resources.traits.ValueWithReferences;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.BeanDescription;
 import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.JsonSerializer;
 import com.fasterxml.jackson.databind.SerializerProvider;
 import com.fasterxml.jackson.databind.ser.BeanSerializerFactory;
-import com.azure.runtime.host.implementation.ResourceUtilities;
+import com.fasterxml.jackson.databind.ser.ResolvableSerializer;
 
 import java.io.IOException;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
 
 public class ResourceSerializer extends JsonSerializer<Resource<?>> {
-    private final Map<String, Resource<?>> referencedResources = new ConcurrentHashMap<>();
-    private final Set<Object> currentDependencySet = new HashSet<>();
+    // One plan per concrete resource class. Serializers are specific to the object mapper that created them, and Jackson
+    // creates a new ResourceSerializer per object mapper, so the plans are cached per serializer instance.
+    private final Map<Class<?>, SerializationPlan> plans = new ConcurrentHashMap<>();
+
+    /**
+     * Writes one of the custom (trait-derived) fields of a resource.
+     */
+    @FunctionalInterface
+    private interface TraitWriter {
+        void write(Resource<?> resource, JsonGenerator gen) throws IOException;
+    }
+
+    /**
+     * Everything we need to know to serialize a particular resource class, worked out once per class: the resolved
+     * bean serializer for the declared properties, and the trait writers that apply to the class, in output order.
+     */
+    private record SerializationPlan(JsonSerializer<Object> beanSerializer, TraitWriter[] traitWriters) { }
 
     @Override
     public void serialize(Resource<?> resource, JsonGenerator gen, SerializerProvider provider) throws IOException {
-        gen.writeStartObject();
+        final SerializationPlan plan = getPlan(resource.getClass(), provider);
 
-        Class<?> actualClass = resource.getClass();
-        JavaType javaType = provider.constructType(actualClass);
-        BeanDescription beanDesc = provider.getConfig().introspect(javaType);
-        JsonSerializer<Object> serializer = BeanSerializerFactory.instance.findBeanOrAddOnSerializer(provider, javaType, beanDesc, true);
+        gen.writeStartObject();
 
         // Serialize the object using the serializer for the actual class
-        serializer.unwrappingSerializer(null).serialize(resource, gen, provider);
+        plan.beanSerializer().serialize(resource, gen, provider);
 
         // TODO this whole serializer could be made much more useful and general purpose - but for now we only use it
         // in this one situation, so the effort hasn't been made to do this yet.
         // Add the custom fields
-        writeConnectionString(resource, gen);
-        writeEnvironmentVariables(resource, gen);
-        writeBindings(resource, gen);
+        for (TraitWriter traitWriter : plan.traitWriters()) {
+            traitWriter.write(resource, gen);
+        }
+
+        gen.writeEndObject();
+    }
+
+    private SerializationPlan getPlan(Class<?> resourceClass, SerializerProvider provider) throws IOException {
+        SerializationPlan plan = plans.get(resourceClass);
+        if (plan == null) {
+            plan = compilePlan(resourceClass, provider);
+            SerializationPlan existing = plans.putIfAbsent(resourceClass, plan);
+            if (existing != null) {
+                plan = existing;
+            }
+        }
+        return plan;
+    }
+
+    private SerializationPlan compilePlan(Class<?> resourceClass, SerializerProvider provider) throws IOException {
+        JavaType javaType = provider.constructType(resourceClass);
+        BeanDescription beanDesc = provider.getConfig().introspect(javaType);
+        JsonSerializer<Object> serializer = BeanSerializerFactory.instance.findBeanOrAddOnSerializer(provider, javaType, beanDesc, true);
 
-        if (resource instanceof DockerFile<?> dockerResource) {
-            writeObjectField("buildArgs", collectKeyValueAnnotations(dockerResource, "buildArgs"), gen);
+        // Resolve the property serializers up front, rather than having them looked up dynamically for every resource.
+        // This also resolves the serializer for any @JsonAnyGetter, which would otherwise be left without a key
+        // serializer.
+        if (serializer instanceof ResolvableSerializer resolvableSerializer) {
+            resolvableSerializer.resolve(provider);
         }
 
-        if (resource instanceof ResourceWithArguments<?>) {
-            writeObjectField("args", collectValueAnnotations(resource, "args"), gen);
+        List<TraitWriter> traitWriters = new ArrayList<>(5);
+        if (ResourceWithConnectionString.class.isAssignableFrom(resourceClass)) {
+            traitWriters.add(this::writeConnectionString);
+        }
+        traitWriters.add(this::writeEnvironmentVariables);
+        traitWriters.add(this::writeBindings);
+        if (DockerFile.class.isAssignableFrom(resourceClass)) {
+            traitWriters.add((resource, gen) -> writeObjectField("buildArgs", collectKeyValueAnnotations(resource, "buildArgs"), gen));
+        }
+        if (ResourceWithArguments.class.isAssignableFrom(resourceClass)) {
+            traitWriters.add((resource, gen) -> writeObjectField("args", collectValueAnnotations(resource, "args"), gen));
         }
 
-        gen.writeEndObject();
+        return new SerializationPlan(serializer.unwrappingSerializer(null), traitWriters.toArray(new TraitWriter[0]));
     }
 
-    private void writeConnectionString(Resource<?> resource, JsonGenerator gen) {
-        if (resource instanceof ResourceWithConnectionString<?> resourceWithConnectionString) {
-            ReferenceExpression connectionStringExpression = resourceWithConnectionString.getConnectionStringExpression();
-            if (connectionStringExpression != null) {
-                try {
-                    gen.writeStringField("connectionString", connectionStringExpression.getValueExpression());
-                } catch (IOException e) {
-                    throw new RuntimeException("Error writing connection string", e);
-                }
-            }
+    private void writeConnectionString(Resource<?> resource, JsonGenerator gen) throws IOException {
+        ReferenceExpression connectionStringExpression = ((ResourceWithConnectionString<?>) resource).getConnectionStringExpression();
+        if (connectionStringExpression != null) {
+            gen.writeStringField("connectionString", connectionStringExpression.getValueExpression());
         }
     }
 
     private void writeBindings(Resource<?> resource, JsonGenerator gen) throws IOException {
         // TODO allocate dynamic target port if one isn't specified, e.g.
         //  https://github.com/dotnet/aspire/blob/a6e341ebbf956bbcec0dda304109815fcbae70c9/src/Aspire.Hosting/Publishing/ManifestPublishingContext.cs#L271
-        Map<Scheme, EndpointAnnotation> bindingsMap = ResourceUtilities.getEndpointAnnotationsAsStream(resource)
-            .collect(Collectors.toMap(EndpointAnnotation::getUriScheme, e -> e, (a, b) -> a));
+        List<EndpointAnnotation> endpointAnnotations = resource.getAnnotations(EndpointAnnotation.class);
+        if (endpointAnnotations.isEmpty()) {
+            return;
+        }
 
-        if (!bindingsMap.isEmpty()) {
-            gen.writeObjectField("bindings", bindingsMap);
+        Map<Scheme, EndpointAnnotation> bindingsMap = new EnumMap<>(Scheme.class);
+        for (EndpointAnnotation endpointAnnotation : endpointAnnotations) {
+            // the first endpoint for a given scheme wins
+            bindingsMap.putIfAbsent(endpointAnnotation.getUriScheme(), endpointAnnotation);
         }
+        gen.writeObjectField("bindings", bindingsMap);
     }
 
     private void writeEnvironmentVariables(Resource<?> resource, JsonGenerator gen) throws IOException {
-        final Map<String, Object> config = new TreeMap<>(String::compareTo);
-        EnvironmentCallbackContext envContext = new EnvironmentCallbackContext(config);
-
-        List<EnvironmentCallbackAnnotation> callbacks = ResourceUtilities.getAnnotationsOfType(resource, EnvironmentCallbackAnnotation.class);
-        if (callbacks != null && !callbacks.isEmpty()) {
-            gen.writeFieldName("env");
-            gen.writeStartObject();
-
-            for (EnvironmentCallbackAnnotation callback : callbacks) {
-                callback.getCallback().accept(envContext);
-            }
+        if (resource.getAnnotations(EnvironmentCallbackAnnotation.class).isEmpty()) {
+            return;
+        }
 
-            for (Map.Entry<String, Object> entry : config.entrySet()) {
-                String key = entry.getKey();
-                Object value = entry.getValue();
-                String valueString;
-
-                if (value instanceof String) {
-                    valueString = (String) value;
-                } else if (value instanceof ManifestExpressionProvider) {
-                    valueString = ((ManifestExpressionProvider) value).getValueExpression();
-                } else {
-                    throw new RuntimeException("The value of the environment variable '" + key + "' is not supported.");
-                }
+        // the callbacks have normally been run once already, before publishing, rather than on every serialization
+        ResolvedEnvironmentAnnotation environment = ResolvedEnvironmentAnnotation.of(resource);
 
-                gen.writeStringField(key, valueString);
+        gen.writeFieldName("env");
+        gen.writeStartObject();
 
-                // TODO see here:
-                // https://github.com/dotnet/aspire/blob/a6e341ebbf956bbcec0dda304109815fcbae70c9/src/Aspire.Hosting/Publishing/ManifestPublishingContext.cs#L513
-                tryAddDependentResources(value);
+        for (ResolvedEnvironmentAnnotation.Entry entry : environment.getEntries()) {
+            if (entry.expression() == null) {
+                throw new RuntimeException("The value of the environment variable '" + entry.name() + "' is not supported.");
             }
 
-            gen.writeEndObject();
+            gen.writeStringField(entry.name(), entry.expression());
+
+            // The resources that this value references are tracked by the ResourceDependencyGraph, rather than here,
+            // see: https://github.com/dotnet/aspire/blob/a6e341ebbf956bbcec0dda304109815fcbae70c9/src/Aspire.Hosting/Publishing/ManifestPublishingContext.cs#L513
         }
+
+        gen.writeEndObject();
     }
 
     private List<Object> collectValueAnnotations(Resource<?> resource, String type) {
-        return resource.getAnnotations().stream()
-            .filter(a -> a instanceof ArgsAnnotation argsAnnotation && type.equals(argsAnnotation.getType()))
-            .map(a -> ((ArgsAnnotation) a).getArgs().stream())
-            .collect(Collectors.toList());
+        List<Object> values = new ArrayList<>();
+        for (ArgsAnnotation argsAnnotation : resource.getAnnotations(ArgsAnnotation.class)) {
+            if (type.equals(argsAnnotation.getType())) {
+                values.addAll(argsAnnotation.getArgs());
+            }
+        }
+        return values;
     }
 
     private Map<String, Object> collectKeyValueAnnotations(Resource<?> resource, String type) {
-        return resource.getAnnotations().stream()
-            .filter(a -> a instanceof KeyValueAnnotation keyValueAnnotation && type.equals(keyValueAnnotation.getType()))
-            .map(a -> (KeyValueAnnotation) a)
-            .collect(Collectors.toMap(KeyValueAnnotation::getKey, KeyValueAnnotation::getValue));
+        Map<String, Object> values = new HashMap<>();
+        for (KeyValueAnnotation keyValueAnnotation : resource.getAnnotations(KeyValueAnnotation.class)) {
+            if (type.equals(keyValueAnnotation.getType())) {
+                if (values.putIfAbsent(keyValueAnnotation.getKey(), keyValueAnnotation.getValue()) != null) {
+                    throw new IllegalStateException("Duplicate key '" + keyValueAnnotation.getKey() + "' for '" + type + "'");
+                }
+            }
+        }
+        return values;
     }
 
     private void writeObjectField(String name, Map<?,?> map, JsonGenerator gen) throws IOException {
@@ -144,20 +180,4 @@ public class ResourceSerializer extends JsonSerializer<Resource<?>> {
             gen.writeObjectField(name, collection);
         }
     }
-
-    private void tryAddDependentResources(Object value) {
-        if (value instanceof Resource<?> resource) {
-            referencedResources.put(resource.getName(), resource);
-        } else if (value instanceof ValueWithReferences objectWithReferences) {
-            if (!currentDependencySet.add(value)) {
-                return; // Already processing this value, prevent infinite recursion
-            }
-            for (Object dependency : objectWithReferences.getReferences()) {
-                if (!currentDependencySet.contains(dependency)) {
-                    tryAddDependentResources(dependency);
-                }
-            }
-            currentDependencySet.remove(value);
-        }
-    }
-}
\ No newline at end of file
+}
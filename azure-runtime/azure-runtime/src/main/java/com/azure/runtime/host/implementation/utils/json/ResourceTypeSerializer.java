@@ -0,0 +1,36 @@
+package com.azure.runtime.host.implementation.utils.json;
+
+import com.azure.runtime.host.resources.ResourceType;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Writes the type of every resource in the manifest. There are only a handful of distinct (interned) resource types,
+ * so rather than have Jackson call {@link ResourceType#toString()} and quote and encode the result for every resource,
+ * each type is encoded once into a {@link SerializedString}, which the generator then copies out as is.
+ */
+public class ResourceTypeSerializer extends JsonSerializer<ResourceType> {
+    // keyed by identity, as resource types are interned
+    private final Map<ResourceType, SerializableString> encodedTypes = new ConcurrentHashMap<>();
+
+    @Override
+    public void serialize(ResourceType type, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+        SerializableString encoded = encodedTypes.get(type);
+        if (encoded == null) {
+            encoded = encodedTypes.computeIfAbsent(type, t -> new SerializedString(t.toString()));
+        }
+        gen.writeString(encoded);
+    }
+
+    @Override
+    public Class<ResourceType> handledType() {
+        return ResourceType.class;
+    }
+}
@@ -0,0 +1,154 @@
+package com.azure.runtime.host.resources;
+
+import com.azure.runtime.host.resources.annotations.EndpointAnnotation;
+import com.azure.runtime.host.resources.annotations.ResourceAnnotation;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The annotations of a resource. This is a regular, modifiable list of annotations in insertion order (which is what
+ * {@link Resource#getAnnotations()} has always returned), with two indexes maintained alongside it:
+ * <ul>
+ *     <li>A per-type index, so that asking for all annotations of a given type (e.g. all
+ *     {@link com.azure.runtime.host.resources.annotations.EnvironmentCallbackAnnotation environment callbacks}) no
+ *     longer means scanning every annotation on the resource.</li>
+ *     <li>A name index for {@link EndpointAnnotation endpoints}, as endpoint names are looked up (case-insensitively)
+ *     every time an endpoint is added or referenced.</li>
+ * </ul>
+ * Appending an annotation - by far the most common modification - updates the indexes incrementally. Any other
+ * modification (inserting in the middle, replacing or removing) rebuilds them, which is fine as it rarely happens.
+ */
+// Not public API
+final class AnnotationStore extends AbstractList<ResourceAnnotation> implements RandomAccess {
+
+    private final List<ResourceAnnotation> annotations = new ArrayList<>();
+
+    // One list per annotation type that has been asked for, in insertion order. These lists are only ever updated in
+    // place, so the read-only views handed out by getAnnotations(Class) remain valid as the store changes. The lists are
+    // created on first read, and the annotations are read concurrently (e.g. by the parallel template rendering,
+    // precommit hooks and validation), so the map must be safe for concurrent creation.
+    private final Map<Class<?>, List<ResourceAnnotation>> typeIndex = new ConcurrentHashMap<>();
+
+    // Endpoint annotations by lower-cased name. If there are several with the same name, the first one wins.
+    private final Map<String, EndpointAnnotation> endpointIndex = new HashMap<>();
+
+    /**
+     * Returns a read-only, live view of the annotations of the given type (including subtypes), in insertion order.
+     */
+    @SuppressWarnings("unchecked")
+    <A extends ResourceAnnotation> List<A> getAnnotations(Class<A> type) {
+        final List<ResourceAnnotation> index = typeIndex.computeIfAbsent(type, t -> {
+            final List<ResourceAnnotation> list = new ArrayList<>();
+            fillIndex(t, list);
+            return list;
+        });
+        return (List<A>) Collections.unmodifiableList(index);
+    }
+
+    /**
+     * Returns the endpoint annotation with the given name, compared case-insensitively, or null if there is none.
+     */
+    EndpointAnnotation getEndpointAnnotation(String name) {
+        return name == null ? null : endpointIndex.get(endpointKey(name));
+    }
+
+    @Override
+    public ResourceAnnotation get(int index) {
+        return annotations.get(index);
+    }
+
+    @Override
+    public int size() {
+        return annotations.size();
+    }
+
+    @Override
+    public boolean add(ResourceAnnotation annotation) {
+        Objects.requireNonNull(annotation, "annotation cannot be null");
+        annotations.add(annotation);
+        modCount++;
+        indexAppended(annotation);
+        return true;
+    }
+
+    @Override
+    public void add(int index, ResourceAnnotation annotation) {
+        Objects.requireNonNull(annotation, "annotation cannot be null");
+        if (index == annotations.size()) {
+            add(annotation);
+            return;
+        }
+        annotations.add(index, annotation);
+        modCount++;
+        rebuildIndexes();
+    }
+
+    @Override
+    public ResourceAnnotation set(int index, ResourceAnnotation annotation) {
+        Objects.requireNonNull(annotation, "annotation cannot be null");
+        ResourceAnnotation previous = annotations.set(index, annotation);
+        rebuildIndexes();
+        return previous;
+    }
+
+    @Override
+    public ResourceAnnotation remove(int index) {
+        ResourceAnnotation removed = annotations.remove(index);
+        modCount++;
+        rebuildIndexes();
+        return removed;
+    }
+
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        annotations.subList(fromIndex, toIndex).clear();
+        modCount++;
+        rebuildIndexes();
+    }
+
+    private void indexAppended(ResourceAnnotation annotation) {
+        for (Map.Entry<Class<?>, List<ResourceAnnotation>> entry : typeIndex.entrySet()) {
+            if (entry.getKey().isInstance(annotation)) {
+                entry.getValue().add(annotation);
+            }
+        }
+        if (annotation instanceof EndpointAnnotation endpointAnnotation) {
+            endpointIndex.putIfAbsent(endpointKey(endpointAnnotation.getName()), endpointAnnotation);
+        }
+    }
+
+    private void rebuildIndexes() {
+        typeIndex.forEach((type, index) -> {
+            index.clear();
+            fillIndex(type, index);
+        });
+
+        endpointIndex.clear();
+        for (ResourceAnnotation annotation : annotations) {
+            if (annotation instanceof EndpointAnnotation endpointAnnotation) {
+                endpointIndex.putIfAbsent(endpointKey(endpointAnnotation.getName()), endpointAnnotation);
+            }
+        }
+    }
+
+    private void fillIndex(Class<?> type, List<ResourceAnnotation> index) {
+        for (ResourceAnnotation annotation : annotations) {
+            if (type.isInstance(annotation)) {
+                index.add(annotation);
+            }
+        }
+    }
+
+    private static String endpointKey(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+}
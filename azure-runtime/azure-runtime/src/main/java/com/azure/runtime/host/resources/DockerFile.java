@@ -11,9 +11,14 @@ import com.azure.runtime.host.utils.json.RelativePath;
 import com.azure.runtime.host.implementation.utils.json.RelativePathSerializer;
 import com.azure.runtime.host.resources.traits.ResourceWithEndpoints;
 import com.azure.runtime.host.resources.traits.ResourceWithEnvironment;
+import com.azure.runtime.host.resources.traits.ResourceWithSources;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
 /*
  {
     "type": "object",
@@ -56,7 +61,7 @@ import jakarta.validation.constraints.NotNull;
 @JsonPropertyOrder({"type", "path", "context", "env", "bindings"})
 @JsonInclude(JsonInclude.Include.NON_EMPTY)
 public class DockerFile<T extends DockerFile<T>> extends Resource<T>
-        implements ResourceWithEnvironment<T>, ResourceWithEndpoints<T>, ResourceWithReference<T> { // FIXME Does a DockerFile support endpoints like this?
+        implements ResourceWithEnvironment<T>, ResourceWithEndpoints<T>, ResourceWithReference<T>, ResourceWithSources { // FIXME Does a DockerFile support endpoints like this?
 
     @NotNull(message = "DockerFile.path cannot be null")
     @NotEmpty(message = "DockerFile.path cannot be an empty string")
@@ -118,6 +123,11 @@ public class DockerFile<T extends DockerFile<T>> extends Resource<T>
         return self();
     }
 
+    @Override
+    public List<String> getSourcePaths() {
+        return Stream.of(path, context).filter(Objects::nonNull).toList();
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public T self() {
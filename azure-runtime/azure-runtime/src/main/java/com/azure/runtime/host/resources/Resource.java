@@ -1,6 +1,8 @@
 package com.azure.runtime.host.resources;
 
+import com.azure.runtime.host.resources.annotations.EndpointAnnotation;
 import com.azure.runtime.host.resources.annotations.ResourceAnnotation;
+import com.azure.runtime.host.resources.references.EndpointReference;
 import com.azure.runtime.host.resources.traits.ResourceWithLifecycle;
 import com.azure.runtime.host.resources.traits.ResourceWithParameters;
 import com.azure.runtime.host.resources.traits.SelfAware;
@@ -13,8 +15,11 @@ import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 /**
  * Represents a generic resource within the Java Runtime for Azure framework. This abstract class serves as the foundation
@@ -59,12 +64,17 @@ public abstract class Resource<T extends Resource<T>> implements ResourceWithLif
     private final String name;
 
     @JsonIgnore
-    private final List<ResourceAnnotation> annotations;
+    private final AnnotationStore annotations;
+
+    // the references to the endpoints of this resource, by endpoint name. A resource that is referenced by many others
+    // would otherwise hand out (and compute the manifest expressions of) a new reference for every one of them.
+    @JsonIgnore
+    private final Map<String, EndpointReference<?>> endpointReferences = new ConcurrentHashMap<>();
 
     public Resource(ResourceType type, String name) {
         this.type = type;
         this.name = name;
-        this.annotations = new ArrayList<>();
+        this.annotations = new AnnotationStore();
     }
 
     /**
@@ -117,6 +127,50 @@ public abstract class Resource<T extends Resource<T>> implements ResourceWithLif
         return annotations;
     }
 
+    /**
+     * Returns the annotations of the given type (including subtypes) associated with this resource, in the order they
+     * were added. The annotations are indexed by type, so this does not scan every annotation on the resource.
+     * <p>
+     * Usage example:
+     *
+     * {@snippet lang="java" :
+     * for (EndpointAnnotation endpoint : resource.getAnnotations(EndpointAnnotation.class)) {
+     *     System.out.println("Endpoint: " + endpoint.getName());
+     * }
+     * }
+     *
+     * @param type The type of annotation to return.
+     * @param <A>  The type of annotation to return.
+     * @return A read-only, live view of the annotations of the given type.
+     */
+    public final <A extends ResourceAnnotation> List<A> getAnnotations(Class<A> type) {
+        return annotations.getAnnotations(type);
+    }
+
+    /**
+     * Returns the endpoint annotation with the given name, if there is one. Endpoint names are compared
+     * case-insensitively. If more than one endpoint has the given name, the first one added is returned.
+     *
+     * @param name The name of the endpoint.
+     * @return The endpoint annotation with the given name, or an empty optional if there is none.
+     */
+    public final Optional<EndpointAnnotation> getEndpointAnnotation(String name) {
+        return Optional.ofNullable(annotations.getEndpointAnnotation(name));
+    }
+
+    /**
+     * Returns the reference to the endpoint of this resource with the given name, creating it with the given factory
+     * the first time it is asked for. This backs {@link com.azure.runtime.host.resources.traits.ResourceWithEndpoints#getEndpoint(String)},
+     * which should be used instead.
+     *
+     * @param name    The name of the endpoint.
+     * @param factory Creates the reference to the endpoint with the given name.
+     * @return The reference to the endpoint.
+     */
+    public final EndpointReference<?> getEndpointReference(String name, Function<String, EndpointReference<?>> factory) {
+        return endpointReferences.computeIfAbsent(name, factory);
+    }
+
     /**
      * Adds an annotation to this resource. This method provides a fluent interface for adding annotations,
      * allowing for easy chaining of configuration methods.
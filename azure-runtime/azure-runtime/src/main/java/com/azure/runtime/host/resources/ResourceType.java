@@ -1,14 +1,28 @@
 package com.azure.runtime.host.resources;
 
+import com.azure.runtime.host.implementation.utils.json.ResourceTypeSerializer;
 import com.fasterxml.jackson.annotation.JsonValue;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * An expandable enum-like type for specifying the type of a resource. This is used to determine how to process the
  * resource when being processed by tools such as azd.
+ * <p>
+ * Resource types are interned: there is only ever one instance per type string, so {@link #fromString(String)}
+ * returns the same instance wherever it is called for the same type, and resource types can be compared with
+ * {@code ==} (which is all {@link #equals(Object)} does) and used as keys of an
+ * {@link java.util.IdentityHashMap IdentityHashMap}.
  */
-public class ResourceType {
+@JsonSerialize(using = ResourceTypeSerializer.class)
+public final class ResourceType {
+    // every resource type there is, by type string. This has to come before the constants below, which register into it.
+    private static final Map<String, ResourceType> REGISTRY = new ConcurrentHashMap<>();
+
     /**
      * An Azure Bicep file - consider using {@link AzureBicepResource}.
      */
@@ -43,9 +57,9 @@ public class ResourceType {
     }
 
     /**
-     * Creates a new ResourceType with the given value as the type.
-     * @param value The value of the new ResourceType.
-     * @return A new ResourceType with the given value as the type.
+     * Returns the ResourceType with the given value as the type, creating it if this is the first time it is asked for.
+     * @param value The value of the ResourceType.
+     * @return The one ResourceType with the given value as the type.
      */
     public static ResourceType fromString(String value) {
         if (value == null) {
@@ -54,7 +68,21 @@ public class ResourceType {
         if (value.isEmpty()) {
             throw new IllegalArgumentException("Resource type cannot be empty");
         }
-        return new ResourceType(value);
+        final ResourceType type = REGISTRY.get(value);
+        return type != null ? type : REGISTRY.computeIfAbsent(value, ResourceType::new);
+    }
+
+    /**
+     * Resource types are interned, so they are only ever equal to themselves.
+     */
+    @Override
+    public boolean equals(Object o) {
+        return this == o;
+    }
+
+    @Override
+    public int hashCode() {
+        return value.hashCode();
     }
 
     @Override
@@ -0,0 +1,134 @@
+package com.azure.runtime.host.resources.annotations;
+
+import com.azure.runtime.host.resources.Resource;
+import com.azure.runtime.host.resources.traits.ManifestExpressionProvider;
+import com.azure.runtime.host.resources.traits.ValueWithReferences;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * An immutable snapshot of the environment variables of a resource, taken by running all of its
+ * {@link EnvironmentCallbackAnnotation environment callbacks} once. The entries are sorted by name, and each holds the
+ * value the callbacks produced, the manifest expression of that value, and the resources the value references.
+ * <p>
+ * The callbacks are resolved into this snapshot once the resources are in their final state, just before the manifest
+ * is published, so that the manifest, and anything else that looks at the environment of the resources (such as the
+ * dependency graph), reads the snapshot rather than running the callbacks again.
+ */
+public final class ResolvedEnvironmentAnnotation implements ResourceAnnotation {
+
+    /**
+     * An environment variable.
+     * @param name       The name of the environment variable.
+     * @param value      The value the environment callbacks produced.
+     * @param expression The manifest expression of the value, or null if the value is not of a type that can be written
+     *                   to the manifest.
+     * @param references The resources that the value directly references.
+     */
+    public record Entry(String name, Object value, String expression, List<Resource<?>> references) { }
+
+    private final Resource<?> resource;
+    private final List<Entry> entries;
+    private final List<Resource<?>> references;
+
+    private ResolvedEnvironmentAnnotation(Resource<?> resource, List<Entry> entries) {
+        this.resource = resource;
+        this.entries = entries;
+
+        final Set<Resource<?>> allReferences = Collections.newSetFromMap(new IdentityHashMap<>());
+        final List<Resource<?>> orderedReferences = new ArrayList<>();
+        for (Entry entry : entries) {
+            for (Resource<?> reference : entry.references()) {
+                if (allReferences.add(reference)) {
+                    orderedReferences.add(reference);
+                }
+            }
+        }
+        this.references = Collections.unmodifiableList(orderedReferences);
+    }
+
+    /**
+     * Runs the environment callbacks of the given resource, and returns the resulting snapshot. The snapshot is not
+     * added to the resource.
+     */
+    public static ResolvedEnvironmentAnnotation resolve(Resource<?> resource) {
+        final List<EnvironmentCallbackAnnotation> callbacks = resource.getAnnotations(EnvironmentCallbackAnnotation.class);
+        if (callbacks.isEmpty()) {
+            return new ResolvedEnvironmentAnnotation(resource, List.of());
+        }
+
+        final Map<String, Object> environment = new TreeMap<>(String::compareTo);
+        final EnvironmentCallbackContext context = new EnvironmentCallbackContext(environment);
+        for (EnvironmentCallbackAnnotation callback : callbacks) {
+            callback.getCallback().accept(context);
+        }
+
+        final List<Entry> entries = new ArrayList<>(environment.size());
+        environment.forEach((name, value) -> entries.add(new Entry(name, value, toExpression(value),
+            ValueWithReferences.findReferencedResources(value))));
+        return new ResolvedEnvironmentAnnotation(resource, Collections.unmodifiableList(entries));
+    }
+
+    /**
+     * Returns the snapshot that was taken of the environment of the given resource, or, if there is none, resolves a
+     * new one (without adding it to the resource).
+     */
+    public static ResolvedEnvironmentAnnotation of(Resource<?> resource) {
+        return find(resource).orElseGet(() -> resolve(resource));
+    }
+
+    /**
+     * Returns the snapshot that was taken of the environment of the given resource, if there is one. Unlike
+     * {@link #of(Resource)}, this never runs the environment callbacks.
+     */
+    public static Optional<ResolvedEnvironmentAnnotation> find(Resource<?> resource) {
+        final List<ResolvedEnvironmentAnnotation> snapshots = resource.getAnnotations(ResolvedEnvironmentAnnotation.class);
+        // annotations are copied when a resource is substituted, but a snapshot only ever applies to its own resource
+        if (!snapshots.isEmpty() && snapshots.getLast().resource == resource) {
+            return Optional.of(snapshots.getLast());
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Returns the environment variables, sorted by name.
+     */
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * Returns every resource referenced by the environment variables, in the order they are first referenced.
+     */
+    public List<Resource<?>> getReferences() {
+        return references;
+    }
+
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    private static String toExpression(Object value) {
+        if (value instanceof String string) {
+            return string;
+        } else if (value instanceof ManifestExpressionProvider provider) {
+            return provider.getValueExpression();
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return "ResolvedEnvironmentAnnotation{" +
+            "resource='" + resource.getName() + '\'' +
+            ", entries=" + entries.size() +
+            '}';
+    }
+}
@@ -19,10 +19,16 @@ import java.util.Optional;
 public class EndpointReference<T extends ResourceWithEndpoints<?>>
                 implements ValueProvider, ValueWithReferences, ManifestExpressionProvider {
 
+    private static final EndpointProperty[] PROPERTIES = EndpointProperty.values();
+
     private final String endpointName;
     private final T resource;
     private final EndpointAnnotation endpointAnnotation;
 
+    // the manifest expression of each property, computed on first use, as it only depends on the names of the resource
+    // and the endpoint
+    private final String[] expressions = new String[PROPERTIES.length];
+
     /**
      * Creates a new instance of EndpointReference with the specified endpoint name.
      * @param owner The resource with endpoints that owns the endpoint reference.
@@ -57,8 +63,24 @@ public class EndpointReference<T extends ResourceWithEndpoints<?>>
         return getExpression(EndpointProperty.URL);
     }
 
+    /**
+     * Gets the manifest expression of the given property of this endpoint.
+     *
+     * @param property The property of the endpoint.
+     * @return The expression, e.g. {@code {resource.bindings.http.url}}.
+     */
+    String getExpression(EndpointProperty property) {
+        // a race here at worst computes the same string twice
+        String expression = expressions[property.ordinal()];
+        if (expression == null) {
+            expression = computeExpression(property);
+            expressions[property.ordinal()] = expression;
+        }
+        return expression;
+    }
+
     // FIXME this is not the long term plan!
-    private String getExpression(EndpointProperty property) {
+    private String computeExpression(EndpointProperty property) {
         String prop = switch (property) {
             case URL -> "url";
             case HOST, IPV4_HOST -> "host";
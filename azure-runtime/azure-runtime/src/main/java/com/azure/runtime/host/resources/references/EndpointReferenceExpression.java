@@ -51,7 +51,7 @@ public class EndpointReferenceExpression implements ManifestExpressionProvider,
      * @return The value expression.
      */
     public String getValueExpression() {
-        return endpointReference.getValueExpression();
+        return endpointReference.getExpression(property);
     }
 
     /**
@@ -1,43 +1,144 @@
 package com.azure.runtime.host.resources.references;
 
+import com.azure.runtime.host.resources.traits.ManifestExpressionProvider;
 import com.azure.runtime.host.resources.traits.ValueProvider;
 import com.azure.runtime.host.resources.traits.ValueWithReferences;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
  * Represents an expression that might be made up of multiple resource properties. For example, a connection string
  * might be made up of a host, port, and password from different endpoints.
+ * <p>
+ * An expression is made up of literal text and {@link ValueProvider value providers}, and is compiled once, when it is
+ * built, into a fixed sequence of segments. Expressions can be built either from a format string, in which every
+ * {@code %s} is replaced by the next value provider:
+ * <pre>
+ * ReferenceExpression.of("Endpoint=%s;Key=%s", endpoint, key);
+ * </pre>
+ * or segment by segment, with a {@link #builder() builder}:
+ * <pre>
+ * ReferenceExpression.builder()
+ *     .appendLiteral("Endpoint=").appendValueProvider(endpoint)
+ *     .appendLiteral(";Key=").appendValueProvider(key)
+ *     .build();
+ * </pre>
+ * The value providers must also be {@link ManifestExpressionProvider manifest expression providers}, so that the
+ * expression can be written to the manifest.
  */
-public class ReferenceExpression implements ValueProvider, ValueWithReferences {
-    private final String format;
+public class ReferenceExpression implements ValueProvider, ManifestExpressionProvider, ValueWithReferences {
+
+    // each segment is either a literal String or a ValueProvider, and no two literals are adjacent
+    private final Object[] segments;
     private final List<ValueProvider> valueProviders;
     private final List<String> manifestExpressions;
+    private final List<Object> references;
+
+    // computed on first use - the manifest expressions of the value providers don't change once they're built
+    private volatile String valueExpression;
+
+    private ReferenceExpression(List<Object> segments) {
+        this.segments = segments.toArray();
+
+        final List<ValueProvider> providers = new ArrayList<>();
+        final List<String> expressions = new ArrayList<>();
+        for (Object segment : this.segments) {
+            if (segment instanceof ValueProvider provider) {
+                providers.add(provider);
+                expressions.add(((ManifestExpressionProvider) provider).getValueExpression());
+            }
+        }
+        this.valueProviders = Collections.unmodifiableList(providers);
+        this.manifestExpressions = Collections.unmodifiableList(expressions);
+        this.references = List.copyOf(providers);
+    }
+
+    /**
+     * Creates an expression made up of the given literal text only. Unlike {@link #of(String, ValueProvider...)}, the
+     * text is not interpreted as a format string.
+     *
+     * @param literal The text of the expression.
+     * @return The expression.
+     */
+    public static ReferenceExpression create(String literal) {
+        return builder().appendLiteral(literal).build();
+    }
 
     /**
-     * Constructs a new ReferenceExpression.
+     * Creates an expression from a format string, in which every {@code %s} is replaced by the next of the given value
+     * providers, and {@code %%} by a literal {@code %}.
      *
-     * @param format             The format string for this expression.
-     * @param valueProviders     The list of ValueProvider that will be used to resolve parameters for the format string.
-     * @param manifestExpressions The manifest expressions for the parameters for the format string.
+     * @param format         The format string.
+     * @param valueProviders The value providers, one for every {@code %s} in the format string.
+     * @return The expression.
+     * @throws IllegalArgumentException If the format string contains any other format specifier, or if the number of
+     *                                  value providers does not match the number of {@code %s} in the format string.
      */
-    private ReferenceExpression(String format, List<ValueProvider> valueProviders, List<String> manifestExpressions) {
-        if (format == null || valueProviders == null || manifestExpressions == null) {
+    public static ReferenceExpression of(String format, ValueProvider... valueProviders) {
+        if (format == null || valueProviders == null) {
             throw new IllegalArgumentException("Arguments cannot be null");
         }
-        this.format = format;
-        this.valueProviders = new ArrayList<>(valueProviders);
-        this.manifestExpressions = List.copyOf(manifestExpressions);
+
+        final Builder builder = builder();
+        final StringBuilder literal = new StringBuilder();
+        int next = 0;
+        for (int i = 0; i < format.length(); i++) {
+            final char c = format.charAt(i);
+            if (c != '%') {
+                literal.append(c);
+                continue;
+            }
+            if (i + 1 == format.length()) {
+                throw new IllegalArgumentException("Format string '" + format + "' ends with a lone '%'");
+            }
+            final char specifier = format.charAt(++i);
+            if (specifier == '%') {
+                literal.append('%');
+            } else if (specifier == 's') {
+                if (next == valueProviders.length) {
+                    throw new IllegalArgumentException("Format string '" + format + "' expects more than "
+                        + valueProviders.length + " value providers");
+                }
+                builder.appendLiteral(literal.toString()).appendValueProvider(valueProviders[next++]);
+                literal.setLength(0);
+            } else {
+                throw new IllegalArgumentException("Unsupported format specifier '%" + specifier + "' in format string '"
+                    + format + "', only %s and %% are supported");
+            }
+        }
+        if (next != valueProviders.length) {
+            throw new IllegalArgumentException("Format string '" + format + "' expects " + next
+                + " value providers, but " + valueProviders.length + " were given");
+        }
+        return builder.appendLiteral(literal.toString()).build();
+    }
+
+    /**
+     * Returns a new builder, to build an expression segment by segment.
+     *
+     * @return The builder.
+     */
+    public static Builder builder() {
+        return new Builder();
     }
 
     /**
-     * Gets the format string for this expression.
+     * Gets the format string for this expression, with a {@code %s} in place of every value provider.
      *
      * @return The format string.
      */
     public String getFormat() {
-        return format;
+        final StringBuilder format = new StringBuilder();
+        for (Object segment : segments) {
+            if (segment instanceof String literal) {
+                format.append(literal.replace("%", "%%"));
+            } else {
+                format.append("%s");
+            }
+        }
+        return format.toString();
     }
 
     /**
@@ -60,33 +161,120 @@ public class ReferenceExpression implements ValueProvider, ValueWithReferences {
 
     @Override
     public List<Object> getReferences() {
-        return List.of(valueProviders);
+        return references;
     }
 
     /**
-     * The value expression for the format string.
+     * The value expression for the format string, in which every value provider is replaced by its manifest
+     * expression.
      *
      * @return The value expression.
      */
+    @Override
     public String getValueExpression() {
-        return String.format(format, manifestExpressions.toArray());
+        String expression = valueExpression;
+        if (expression == null) {
+            expression = joinManifestExpressions();
+            valueExpression = expression;
+        }
+        return expression;
     }
 
     /**
      * Gets the value of the expression. The final string value after evaluating the format string and its parameters.
      *
-     * @return A CompletionStage containing the evaluated string.
+     * @return The evaluated string.
      */
     @Override
     public String getValue() {
-        String[] values = valueProviders.stream()
-            .map(ValueProvider::getValue)
-            .toArray(String[]::new);
-        return String.format(format, (Object) values);
+        // values may change over time (e.g. once an endpoint is allocated), so they are not memoized
+        if (segments.length == 1 && segments[0] instanceof String literal) {
+            return literal;
+        }
+        final StringBuilder value = new StringBuilder();
+        for (Object segment : segments) {
+            if (segment instanceof String literal) {
+                value.append(literal);
+            } else {
+                value.append(((ValueProvider) segment).getValue());
+            }
+        }
+        return value.toString();
+    }
+
+    private String joinManifestExpressions() {
+        if (segments.length == 0) {
+            return "";
+        } else if (segments.length == 1 && segments[0] instanceof String literal) {
+            return literal;
+        }
+        final StringBuilder result = new StringBuilder();
+        int next = 0;
+        for (Object segment : segments) {
+            result.append(segment instanceof String literal ? literal : manifestExpressions.get(next++));
+        }
+        return result.toString();
+    }
+
+    @Override
+    public String toString() {
+        return getValueExpression();
     }
 
-    // TODO this is not complete!
-    public static ReferenceExpression create(String format) {
-        return new ReferenceExpression(format, new ArrayList<>(), new ArrayList<>());
+    /**
+     * Builds a {@link ReferenceExpression} from literal text and value providers, in the order they are appended.
+     */
+    public static final class Builder {
+        private final List<Object> segments = new ArrayList<>();
+
+        private Builder() { }
+
+        /**
+         * Appends literal text to the expression.
+         *
+         * @param literal The text.
+         * @return The builder.
+         */
+        public Builder appendLiteral(String literal) {
+            if (literal == null) {
+                throw new IllegalArgumentException("literal cannot be null");
+            }
+            if (literal.isEmpty()) {
+                return this;
+            }
+            if (!segments.isEmpty() && segments.getLast() instanceof String previous) {
+                segments.set(segments.size() - 1, previous + literal);
+            } else {
+                segments.add(literal);
+            }
+            return this;
+        }
+
+        /**
+         * Appends a value provider to the expression, which must also be a {@link ManifestExpressionProvider}.
+         *
+         * @param valueProvider The value provider.
+         * @return The builder.
+         */
+        public Builder appendValueProvider(ValueProvider valueProvider) {
+            if (valueProvider == null) {
+                throw new IllegalArgumentException("valueProvider cannot be null");
+            }
+            if (!(valueProvider instanceof ManifestExpressionProvider)) {
+                throw new IllegalArgumentException("Value provider of type " + valueProvider.getClass().getName()
+                    + " is not a ManifestExpressionProvider, so it cannot be written to the manifest");
+            }
+            segments.add(valueProvider);
+            return this;
+        }
+
+        /**
+         * Builds the expression. The builder can be used again afterwards, without affecting the built expression.
+         *
+         * @return The expression.
+         */
+        public ReferenceExpression build() {
+            return new ReferenceExpression(segments);
+        }
     }
-}
\ No newline at end of file
+}
@@ -80,17 +80,18 @@ public interface ResourceWithEndpoints<T extends Resource<T> & ResourceWithEndpo
     @JsonIgnore
     default List<EndpointReference<?>> getEndpoints() {
         return ResourceUtilities.getEndpointAnnotations(self()).stream()
-            .map(endpointAnnotation -> new EndpointReference<>(self(), endpointAnnotation.getName()))
+            .map(endpointAnnotation -> getEndpoint(endpointAnnotation.getName()))
             .collect(Collectors.toList());
     }
 
     /**
-     * Gets an EndpointReference by name from the resource.
+     * Gets an EndpointReference by name from the resource. The same reference is returned every time the same endpoint
+     * is asked for.
      * @param name The name of the endpoint.
-     * @return
+     * @return The reference to the endpoint.
      */
     default EndpointReference<?> getEndpoint(String name) {
-        return new EndpointReference<>(self(), name);
+        return self().getEndpointReference(name, endpointName -> new EndpointReference<>(self(), endpointName));
     }
 
     /**
@@ -2,6 +2,9 @@ package com.azure.runtime.host.resources.traits;
 
 import com.azure.runtime.host.resources.Resource;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
 /**
  * All resources have a lifecycle, beginning with creation and ending with the resource being written out to the
  * Java App Host manifest. Within this lifecycle, there are times when the resource should ideally be configured, introspected,
@@ -10,10 +13,16 @@ import com.azure.runtime.host.resources.Resource;
  * <ol>
  * <li>Resource is created - Resource constructor is called.</li>
  * <li>Resource is added to the distributed application - onResourceAdded() is called.</li>
- * <li>Prior to writing the resource to the manifest, onResourcePrecommit() is called on all resources in the
- *   order they were added to the distributed application.</li>
+ * <li>Prior to writing the resource to the manifest, onResourcePrecommitAsync() (which by default calls
+ *   onResourcePrecommit()) is called on all resources. The hooks of different resources may run concurrently.</li>
  * </ol>
  *
+ * <p>Precommit hooks run in waves: the hooks of every resource in the distributed application are started together,
+ * and once they have all completed, any resources that the hooks added, removed or substituted are applied to the
+ * distributed application - in the order of the resources whose hooks made the changes, so the result is the same no
+ * matter which hook happened to finish first. The hooks of any newly added resources then run as the next wave. As a
+ * consequence, a precommit hook will not see the changes made by other precommit hooks in the same wave.</p>
+ *
  * <p>The most important point to understand about resource lifecycles is that resources work best when they are
  * configured as early as possible, as this allows for other resources to glean more information from them. A resource
  * that keeps its cards close to its chest only hurts the resources around it!</p>
@@ -39,10 +48,29 @@ public interface ResourceWithLifecycle {
     }
 
     /**
-     * Prior to writing the resource to the manifest, onResourcePrecommit() is called on all resources in the
-     * order they were added to the distributed application.
+     * Prior to writing the resource to the manifest, onResourcePrecommit() is called on all resources, possibly
+     * concurrently with the precommit hooks of other resources. Implementations must therefore only modify this
+     * resource, or the distributed application (via its API to add, remove and substitute resources).
      */
     default void onResourcePrecommit() {
 
     }
+
+    /**
+     * The asynchronous form of {@link #onResourcePrecommit()}, which is what the App Host actually calls. By default,
+     * this simply runs {@link #onResourcePrecommit()} on the given executor. Resources with slow precommit work (for
+     * example introspecting a project on disk) can override this to split their work into several concurrent tasks.
+     * <p>
+     * Any work that changes the distributed application must run on the given executor, so that the changes can be
+     * attributed to this resource and applied deterministically once all the hooks in the wave have completed. Adding,
+     * removing or substituting resources from any other thread while the hooks are running (e.g. from a continuation
+     * scheduled with {@code thenApplyAsync} without an executor) fails with an {@link IllegalStateException}.
+     *
+     * @param executor The executor on which to run the precommit work. This executor runs each task on its own
+     *                 virtual thread, so blocking I/O is fine.
+     * @return A future that completes when the precommit work of this resource is complete.
+     */
+    default CompletableFuture<Void> onResourcePrecommitAsync(Executor executor) {
+        return CompletableFuture.runAsync(this::onResourcePrecommit, executor);
+    }
 }
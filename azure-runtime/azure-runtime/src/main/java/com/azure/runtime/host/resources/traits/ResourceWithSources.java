@@ -0,0 +1,21 @@
+package com.azure.runtime.host.resources.traits;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.util.List;
+
+/**
+ * Interface for resources that are generated from files on disk, such as a project directory or the context of a
+ * Dockerfile, so that their manifest entry (or the template files generated for them) may change when those files do.
+ * When the App Host runs in watch mode, it watches these files and regenerates the manifest when any of them change.
+ */
+public interface ResourceWithSources {
+
+    /**
+     * Returns the files and directories that this resource is generated from. Directories are watched recursively.
+     * Relative paths are relative to the directory the App Host is run from.
+     * @return The source paths of this resource, which may be empty.
+     */
+    @JsonIgnore
+    List<String> getSourcePaths();
+}
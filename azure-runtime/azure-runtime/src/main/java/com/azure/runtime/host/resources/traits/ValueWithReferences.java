@@ -1,8 +1,13 @@
 package com.azure.runtime.host.resources.traits;
 
+import com.azure.runtime.host.resources.Resource;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
 
 /**
  * An interface that allows the value to list its references.
@@ -14,4 +19,35 @@ public interface ValueWithReferences {
      */
     @JsonIgnore
     List<Object> getReferences();
+
+    /**
+     * Finds the resources directly referenced by the given value: the value itself, if it is a resource, or otherwise
+     * the resources found by following the references of a {@link ValueWithReferences}, or the elements of an
+     * {@link Iterable}. Resources that are found are not descended into.
+     * @param value The value, which may be null.
+     * @return A read-only list of the referenced resources, without duplicates, in the order they were found.
+     */
+    static List<Resource<?>> findReferencedResources(Object value) {
+        final List<Resource<?>> references = new ArrayList<>();
+        collectReferencedResources(value, references, Collections.newSetFromMap(new IdentityHashMap<>()));
+        return Collections.unmodifiableList(references);
+    }
+
+    private static void collectReferencedResources(Object value, List<Resource<?>> references, Set<Object> visited) {
+        if (value == null || !visited.add(value)) {
+            // already seen - this also guards against values that (indirectly) reference themselves
+            return;
+        }
+
+        if (value instanceof Resource<?> resource) {
+            // only the direct references, so we don't descend any further
+            references.add(resource);
+        } else if (value instanceof ValueWithReferences valueWithReferences) {
+            collectReferencedResources(valueWithReferences.getReferences(), references, visited);
+        } else if (value instanceof Iterable<?> iterable) {
+            for (Object element : iterable) {
+                collectReferencedResources(element, references, visited);
+            }
+        }
+    }
 }
@@ -0,0 +1,327 @@
+package com.azure.runtime.host.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+/**
+ * Records fingerprints (content hashes) of the inputs to the expensive parts of manifest generation, so that an
+ * incremental run of the App Host can skip the work for anything whose inputs have not changed since the previous run.
+ * The fingerprints are persisted in the output directory, alongside the manifest.
+ * <p>
+ * Each entry in the store is identified by a key chosen by the caller (for example {@code "template:eureka/pom.xml"}),
+ * and holds the fingerprint of the inputs, and optionally a payload - the result of the work that was done - which can
+ * be reused whenever the fingerprint matches. Entries that are not looked up or recorded during a run are dropped when
+ * the store is saved, so resources that are removed from the App Host do not linger.
+ * <p>
+ * The store for a run is opened by the App Host and made available through
+ * {@link com.azure.runtime.host.DistributedApplication#getFingerprintStore()}. Unless the App Host is run in incremental
+ * mode, that store is {@link #disabled() disabled}: lookups always miss, and nothing is recorded. Resources and
+ * extensions can therefore always consult the store, without having to check which mode they are running in.
+ * <p>
+ * When the App Host generates the manifests for several environments in one JVM, payloads are also
+ * {@link #setSharedAcrossRuns(boolean) shared} between those runs in memory, so that work such as build introspection
+ * is done once rather than once per environment. In that case the store is enabled even when the App Host is not run
+ * incrementally, but it is only persisted if it is.
+ *
+ * Usage example:
+ *
+ * {@snippet lang="java" :
+ * FingerprintStore store = DistributedApplication.getInstance().getFingerprintStore();
+ * String fingerprint = FingerprintStore.fingerprint()
+ *     .with(getName())
+ *     .withFile(projectPath.resolve("pom.xml"))
+ *     .build();
+ *
+ * Result result = store.lookup("introspection:" + getName(), fingerprint, Result.class)
+ *     .orElseGet(() -> {
+ *         Result r = introspect();
+ *         store.record("introspection:" + getName(), fingerprint, r);
+ *         return r;
+ *     });
+ * }
+ */
+public final class FingerprintStore {
+    private static final Logger LOGGER = Logger.getLogger(FingerprintStore.class.getName());
+
+    /**
+     * The name of the file, within the output directory, that the fingerprints are persisted to.
+     */
+    public static final String FILENAME = ".apphost-fingerprints.json";
+
+    // Bump this whenever the meaning of the stored fingerprints or payloads changes, to invalidate existing stores
+    private static final int VERSION = 1;
+
+    private static final String FIELD_VERSION = "version";
+    private static final String FIELD_ENTRIES = "entries";
+    private static final String FIELD_FINGERPRINT = "fingerprint";
+    private static final String FIELD_PAYLOAD = "payload";
+
+    private static final FingerprintStore DISABLED = new FingerprintStore(null, Map.of(), false);
+
+    // the payloads recorded by every run in this JVM, while they are being shared across runs
+    private static final Map<String, JsonNode> SHARED_ENTRIES = new ConcurrentHashMap<>();
+    private static volatile boolean sharedAcrossRuns;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    // null if the store is not persisted
+    private final Path storePath;
+    private final boolean enabled;
+
+    // the entries as loaded from the previous run, and the entries that have been confirmed or recorded in this run
+    private final Map<String, JsonNode> previousEntries;
+    private final Map<String, JsonNode> currentEntries = new ConcurrentHashMap<>();
+
+    private FingerprintStore(Path storePath, Map<String, JsonNode> previousEntries, boolean enabled) {
+        this.storePath = storePath;
+        this.previousEntries = previousEntries;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Opens the fingerprint store in the given output directory, loading the fingerprints recorded by the previous run
+     * (if any).
+     * @param outputPath The output directory of the App Host.
+     * @return The opened fingerprint store.
+     */
+    public static FingerprintStore open(Path outputPath) {
+        final Path storePath = outputPath.resolve(FILENAME);
+        return new FingerprintStore(storePath, load(storePath), true);
+    }
+
+    /**
+     * Returns the store for a run that is not incremental: a disabled store - or, while payloads are
+     * {@link #setSharedAcrossRuns(boolean) shared across runs}, a store that is only kept in memory.
+     * @return The fingerprint store.
+     */
+    public static FingerprintStore disabled() {
+        return sharedAcrossRuns ? new FingerprintStore(null, Map.of(), true) : DISABLED;
+    }
+
+    /**
+     * Specifies whether payloads should be shared between the App Host runs in this JVM, such as when the manifests
+     * for several environments are generated one after another. A payload recorded by one run is then reused by any
+     * later run that looks it up with the same fingerprint. Turning sharing off discards the shared payloads.
+     * @param shared True to share payloads across runs.
+     */
+    public static void setSharedAcrossRuns(boolean shared) {
+        sharedAcrossRuns = shared;
+        if (!shared) {
+            SHARED_ENTRIES.clear();
+        }
+    }
+
+    /**
+     * Returns a new builder for computing a fingerprint.
+     * @return A new fingerprint builder.
+     */
+    public static Fingerprint fingerprint() {
+        return new Fingerprint();
+    }
+
+    /**
+     * Indicates whether this store is enabled, i.e. whether the App Host is running in incremental mode, or sharing
+     * payloads across runs.
+     * @return True if this store is enabled.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Checks whether the given fingerprint matches the one recorded for the given key in the previous run, and records
+     * the fingerprint for this run.
+     * @param key           The key of the entry.
+     * @param fingerprint   The fingerprint of the current inputs.
+     * @return True if the fingerprint is unchanged since the previous run.
+     */
+    public boolean isUnchanged(String key, String fingerprint) {
+        if (!isEnabled()) {
+            return false;
+        }
+        final boolean unchanged = matches(previousEntries.get(key), fingerprint);
+        record(key, fingerprint, null);
+        return unchanged;
+    }
+
+    /**
+     * Looks up the payload recorded for the given key in the previous run (or, while payloads are shared across runs,
+     * in an earlier run in this JVM), provided it was recorded with the same fingerprint. On a hit the entry is carried
+     * over to this run; on a miss the caller is expected to do the work and
+     * {@link #record(String, String, Object) record} the result.
+     * @param key           The key of the entry.
+     * @param fingerprint   The fingerprint of the current inputs.
+     * @param type          The type of the payload.
+     * @param <T>           The type of the payload.
+     * @return The payload from the previous run, or an empty optional if there is none, or the inputs have changed.
+     */
+    public <T> Optional<T> lookup(String key, String fingerprint, Class<T> type) {
+        if (!isEnabled()) {
+            return Optional.empty();
+        }
+        JsonNode entry = previousEntries.get(key);
+        if (!matches(entry, fingerprint) && sharedAcrossRuns) {
+            entry = SHARED_ENTRIES.get(key);
+        }
+        if (!matches(entry, fingerprint) || !entry.hasNonNull(FIELD_PAYLOAD)) {
+            return Optional.empty();
+        }
+
+        try {
+            T payload = objectMapper.treeToValue(entry.get(FIELD_PAYLOAD), type);
+            put(key, entry);
+            return Optional.of(payload);
+        } catch (IOException e) {
+            // a payload we can no longer read is simply a miss
+            LOGGER.fine("Unable to read fingerprint payload for '" + key + "': " + e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Records the fingerprint, and optionally the payload, for the given key in this run.
+     * @param key           The key of the entry.
+     * @param fingerprint   The fingerprint of the inputs.
+     * @param payload       The result of the work done for these inputs, or null if there is nothing to reuse.
+     */
+    public void record(String key, String fingerprint, Object payload) {
+        if (!isEnabled()) {
+            return;
+        }
+        ObjectNode entry = objectMapper.createObjectNode();
+        entry.put(FIELD_FINGERPRINT, Objects.requireNonNull(fingerprint));
+        if (payload != null) {
+            entry.set(FIELD_PAYLOAD, objectMapper.valueToTree(payload));
+        }
+        put(key, entry);
+    }
+
+    private void put(String key, JsonNode entry) {
+        currentEntries.put(key, entry);
+        if (sharedAcrossRuns && entry.has(FIELD_PAYLOAD)) {
+            SHARED_ENTRIES.put(key, entry);
+        }
+    }
+
+    /**
+     * Persists the fingerprints recorded in this run to the output directory, replacing those of the previous run.
+     * Stores that are only kept in memory are not persisted.
+     */
+    public void save() {
+        if (storePath == null) {
+            return;
+        }
+
+        ObjectNode root = objectMapper.createObjectNode();
+        root.put(FIELD_VERSION, VERSION);
+        // sort the entries, so the file is stable from one run to the next
+        root.set(FIELD_ENTRIES, objectMapper.valueToTree(new TreeMap<>(currentEntries)));
+
+        try {
+            Path tempPath = storePath.resolveSibling(FILENAME + ".tmp");
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(tempPath.toFile(), root);
+            Files.move(tempPath, storePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static boolean matches(JsonNode entry, String fingerprint) {
+        return entry != null && fingerprint.equals(entry.path(FIELD_FINGERPRINT).asText(null));
+    }
+
+    private static Map<String, JsonNode> load(Path storePath) {
+        if (!Files.isRegularFile(storePath)) {
+            return Map.of();
+        }
+
+        try {
+            JsonNode root = new ObjectMapper().readTree(storePath.toFile());
+            if (root.path(FIELD_VERSION).asInt() != VERSION) {
+                LOGGER.info("Ignoring fingerprints from an older version of the App Host");
+                return Map.of();
+            }
+
+            Map<String, JsonNode> entries = new ConcurrentHashMap<>();
+            root.path(FIELD_ENTRIES).fields().forEachRemaining(e -> entries.put(e.getKey(), e.getValue()));
+            return entries;
+        } catch (IOException e) {
+            // a corrupt store just means that everything is treated as dirty
+            LOGGER.warning("Unable to read fingerprints from " + storePath + ", regenerating everything: " + e.getMessage());
+            return Map.of();
+        }
+    }
+
+    /**
+     * Builds a fingerprint from a sequence of values and file contents. The order in which values are added matters.
+     */
+    public static final class Fingerprint {
+        private final MessageDigest digest;
+
+        private Fingerprint() {
+            try {
+                this.digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        /**
+         * Adds a value to the fingerprint.
+         * @param value The value to add, which may be null.
+         * @return This builder, for chaining.
+         */
+        public Fingerprint with(Object value) {
+            return update(value == null ? "\0null" : value.toString());
+        }
+
+        /**
+         * Adds the contents of a file to the fingerprint, or a marker if the file does not exist.
+         * @param file The file to add.
+         * @return This builder, for chaining.
+         */
+        public Fingerprint withFile(Path file) {
+            if (!Files.isRegularFile(file)) {
+                return update("\0absent:" + file);
+            }
+            try {
+                update("\0file:" + file);
+                digest.update(Files.readAllBytes(file));
+                return this;
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        /**
+         * Completes the fingerprint.
+         * @return The fingerprint, as a hex string.
+         */
+        public String build() {
+            return HexFormat.of().formatHex(digest.digest());
+        }
+
+        private Fingerprint update(String value) {
+            // terminate each value, so that ("ab", "c") and ("a", "bc") produce different fingerprints
+            digest.update(value.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0x1f);
+            return this;
+        }
+    }
+}
@@ -1,32 +1,91 @@
 package com.azure.runtime.host.utils.templates;
 
+import com.azure.runtime.host.implementation.jfr.TemplateRenderEvent;
 import freemarker.template.Configuration;
 import freemarker.template.Template;
 import freemarker.template.TemplateException;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
 
 // Non-public API
 class FreeMarkerTemplateProcessor implements TemplateEngine {
     private static final TemplateEngine INSTANCE = new FreeMarkerTemplateProcessor();
 
+    // Enough for every template shipped with the runtime and its extensions, plus the output filename templates that
+    // are derived from resource names.
+    private static final int MAX_CACHED_TEMPLATES = 256;
+
     private final Configuration CONFIG = new Configuration(Configuration.VERSION_2_3_33);
 
+    // Parsed templates, keyed by the class that owns them (or null for template strings) and their path (or content).
+    // Access-ordered, so that once full we evict the least recently used template.
+    private final Map<TemplateKey, Template> templateCache = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<TemplateKey, Template> eldest) {
+            return size() > MAX_CACHED_TEMPLATES;
+        }
+    };
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    private record TemplateKey(Class<?> owner, String name) { }
+
     private FreeMarkerTemplateProcessor() {    }
 
     public static TemplateEngine getTemplateEngine() {
         return INSTANCE;
     }
 
+    @Override
+    public List<TemplateFileOutput> process(final Class<?> cls,
+                                            final List<TemplateDescriptor> templateDescriptors,
+                                            final Map<String, Object> context) {
+        return templateDescriptors.stream().map(templateDescriptor -> {
+            final TemplateRenderEvent event = new TemplateRenderEvent();
+            event.begin();
+            final Template template = getTemplate(new TemplateKey(cls, templateDescriptor.inputFilename()));
+            final String outputFilename = process(templateDescriptor.outputFilename(), context);
+            final String outputString = process(template, context);
+            if (event.shouldCommit()) {
+                event.template = templateDescriptor.inputFilename();
+                event.owner = cls;
+                event.outputFile = outputFilename;
+                event.outputLength = outputString.length();
+                event.commit();
+            }
+            return new TemplateFileOutput(outputFilename, outputString);
+        }).toList();
+    }
+
     @Override
     public String process(String templateContent, Map<String, Object> context) {
+        return process(getTemplate(new TemplateKey(null, templateContent)), context);
+    }
+
+    @Override
+    public TemplateCacheStatistics getCacheStatistics() {
+        final int size;
+        synchronized (templateCache) {
+            size = templateCache.size();
+        }
+        return new TemplateCacheStatistics(hits.sum(), misses.sum(), size, MAX_CACHED_TEMPLATES);
+    }
+
+    private String process(Template template, Map<String, Object> context) {
         StringWriter out = new StringWriter();
 
         try {
-            Template template = new Template("template", new StringReader(templateContent), CONFIG);
             template.process(context, out);
         } catch (IOException | TemplateException e) {
             throw new RuntimeException(e);
@@ -34,4 +93,47 @@ class FreeMarkerTemplateProcessor implements TemplateEngine {
 
         return out.toString();
     }
-}
\ No newline at end of file
+
+    private Template getTemplate(TemplateKey key) {
+        Template template;
+        synchronized (templateCache) {
+            template = templateCache.get(key);
+        }
+        if (template != null) {
+            hits.increment();
+            return template;
+        }
+
+        // Parse outside the lock - Template instances are immutable once parsed, so if two threads race to parse the
+        // same template we simply keep whichever finished first.
+        misses.increment();
+        template = key.owner() == null ? parseString(key.name()) : parseResource(key.owner(), key.name());
+        synchronized (templateCache) {
+            Template existing = templateCache.putIfAbsent(key, template);
+            return existing != null ? existing : template;
+        }
+    }
+
+    private Template parseString(String templateContent) {
+        try {
+            return new Template("template", new StringReader(templateContent), CONFIG);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private Template parseResource(Class<?> owner, String path) {
+        // The resource is read from this module rather than by FreeMarker, as extensions only open their template
+        // packages to this module. It resolves exactly as Class.getResourceAsStream does - against the extension's own
+        // class loader (and module), with relative paths being relative to the class's package.
+        final InputStream resource = owner.getResourceAsStream(path);
+        if (resource == null) {
+            throw new RuntimeException("Resource file not found: " + path);
+        }
+        try (Reader reader = new InputStreamReader(resource, StandardCharsets.UTF_8)) {
+            return new Template(path, reader, CONFIG);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.azure.runtime.host.utils.templates;
+
+/**
+ * A point-in-time snapshot of the parsed template cache used by the {@link TemplateEngine}. Every template that is
+ * processed - whether a classpath template file or a template string such as an output filename - is looked up in the
+ * cache first, and only parsed on a miss.
+ *
+ * @param hits    The number of lookups that were satisfied from the cache.
+ * @param misses  The number of lookups that required the template to be loaded and parsed.
+ * @param size    The number of parsed templates currently held in the cache.
+ * @param maxSize The maximum number of parsed templates the cache will hold before evicting the least recently used.
+ */
+public record TemplateCacheStatistics(long hits, long misses, int size, int maxSize) {
+
+    /**
+     * Returns the fraction of lookups that were satisfied from the cache, or zero if no lookups have been made.
+     * @return The cache hit ratio, between zero and one.
+     */
+    public double hitRatio() {
+        final long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+}
@@ -64,4 +64,12 @@ public interface TemplateEngine {
             throw new RuntimeException(e);
         }
     }
+
+    /**
+     * Returns a snapshot of the statistics of this template engine's parsed template cache.
+     * @return The cache statistics, or all zeroes if this template engine does not cache parsed templates.
+     */
+    default TemplateCacheStatistics getCacheStatistics() {
+        return new TemplateCacheStatistics(0, 0, 0, 0);
+    }
 }
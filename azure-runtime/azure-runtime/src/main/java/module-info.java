@@ -8,6 +8,8 @@ module com.azure.runtime.host {
     requires transitive jakarta.validation;
     requires org.hibernate.validator;
     requires java.logging;
+    requires jdk.management;
+    requires jdk.jfr;
     requires freemarker;
 
     exports com.azure.runtime.host;
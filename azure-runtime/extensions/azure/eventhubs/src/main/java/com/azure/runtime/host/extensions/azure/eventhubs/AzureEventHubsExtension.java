@@ -3,19 +3,11 @@ package com.azure.runtime.host.extensions.azure.eventhubs;
 import com.azure.runtime.host.extensions.azure.eventhubs.resources.AzureEventHubsResource;
 import com.azure.runtime.host.DistributedApplication;
 import com.azure.runtime.host.Extension;
+import com.azure.runtime.host.ExtensionInfo;
 
+@ExtensionInfo(name = "Azure Event Hubs", description = "Provides resources for Azure Event Hubs")
 public class AzureEventHubsExtension implements Extension {
 
-    @Override
-    public String getName() {
-        return "Azure Event Hubs";
-    }
-
-    @Override
-    public String getDescription() {
-        return "Provides resources for Azure Event Hubs";
-    }
-
     /**
      * Adds an Azure Event Hubs Namespace resource to the application model. This resource can be used to create Event
      * Hub resources.
@@ -21,9 +21,13 @@ public class AzureOpenAIResource extends AzureBicepResource<AzureOpenAIResource>
     @JsonIgnore
     private final List<AzureOpenAIDeployment> deployments;
 
+    @JsonIgnore
+    private final ReferenceExpression connectionStringExpression;
+
     public AzureOpenAIResource(String name) {
         super(name);
         this.deployments = new ArrayList<>();
+        this.connectionStringExpression = ReferenceExpression.create("{" + name + ".outputs.connectionString}");
         withParameter("principalId", "");
         withParameter("principalType", "");
     }
@@ -78,14 +82,13 @@ public class AzureOpenAIResource extends AzureBicepResource<AzureOpenAIResource>
 
     @Override
     public ReferenceExpression getConnectionStringExpression() {
-        // FIXME duplicated below
-        return ReferenceExpression.create("{" + getName() + ".outputs.connectionString}");
+        return connectionStringExpression;
     }
 
     @JsonIgnore
     @Override
     public String getValueExpression() {
         // FIXME
-        return "{" + getName() + ".outputs.connectionString}";
+        return connectionStringExpression.getValueExpression();
     }
 }
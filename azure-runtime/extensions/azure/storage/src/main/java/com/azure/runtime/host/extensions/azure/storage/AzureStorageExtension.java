@@ -3,19 +3,11 @@ package com.azure.runtime.host.extensions.azure.storage;
 import com.azure.runtime.host.extensions.azure.storage.resources.AzureStorageResource;
 import com.azure.runtime.host.DistributedApplication;
 import com.azure.runtime.host.Extension;
+import com.azure.runtime.host.ExtensionInfo;
 
+@ExtensionInfo(name = "Azure Storage", description = "Provides resources for Azure Storage.")
 public class AzureStorageExtension implements Extension {
 
-    @Override
-    public String getName() {
-        return "Azure Storage";
-    }
-
-    @Override
-    public String getDescription() {
-        return "Provides resources for Azure Storage.";
-    }
-
     public AzureStorageResource addAzureStorage(String name) {
         return DistributedApplication.getInstance().addResource(new AzureStorageResource(name));
     }
@@ -5,20 +5,24 @@ import com.azure.runtime.host.resources.references.ReferenceExpression;
 
 public final class AzureStorageBlobsResource extends AzureStorageChildResource {
 
+    @JsonIgnore
+    private final ReferenceExpression connectionStringExpression;
+
     public AzureStorageBlobsResource(String name, AzureStorageResource storageResource) {
         super(name, storageResource);
+        this.connectionStringExpression =
+            ReferenceExpression.create("{" + storageResource.getName() + ".outputs.blobEndpoint}");
     }
 
     @Override
     public ReferenceExpression getConnectionStringExpression() {
-        // FIXME duplicated below
-        return ReferenceExpression.create("{" + storageResource.getName() + ".outputs.blobEndpoint}");
+        return connectionStringExpression;
     }
 
     @JsonIgnore
     @Override
     public String getValueExpression() {
         // FIXME
-        return "{" + storageResource.getName() + ".outputs.blobEndpoint}";
+        return connectionStringExpression.getValueExpression();
     }
 }
@@ -5,20 +5,24 @@ import com.azure.runtime.host.resources.references.ReferenceExpression;
 
 public final class AzureStorageQueuesResource extends AzureStorageChildResource {
 
+    @JsonIgnore
+    private final ReferenceExpression connectionStringExpression;
+
     public AzureStorageQueuesResource(String name, AzureStorageResource storageResource) {
         super(name, storageResource);
+        this.connectionStringExpression =
+            ReferenceExpression.create("{" + storageResource.getName() + ".outputs.queueEndpoint}");
     }
 
     @Override
     public ReferenceExpression getConnectionStringExpression() {
-        // FIXME duplicated below
-        return ReferenceExpression.create("{" + storageResource.getName() + ".outputs.queueEndpoint}");
+        return connectionStringExpression;
     }
 
     @JsonIgnore
     @Override
     public String getValueExpression() {
         // FIXME
-        return "{" + storageResource.getName() + ".outputs.queueEndpoint}";
+        return connectionStringExpression.getValueExpression();
     }
 }
@@ -14,7 +14,7 @@ import java.util.Map;
 
 public class AzureStorageResource extends AzureBicepResource<AzureStorageResource>
                                   implements ResourceWithEndpoints<AzureStorageResource> {
-    private static final ResourceType AZURE_STORAGE = ResourceType.fromString("azure.bicep.v0");
+    private static final ResourceType AZURE_STORAGE = ResourceType.AZURE_BICEP;
 
 //    internal ReferenceExpression GetTableConnectionString() => IsEmulator
 //        ? ReferenceExpression.Create($"{AzureStorageEmulatorConnectionString.Create(tablePort: EmulatorTableEndpoint.Port)}")
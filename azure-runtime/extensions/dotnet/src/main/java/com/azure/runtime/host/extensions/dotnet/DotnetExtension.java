@@ -2,20 +2,12 @@ package com.azure.runtime.host.extensions.dotnet;
 
 import com.azure.runtime.host.DistributedApplication;
 import com.azure.runtime.host.Extension;
+import com.azure.runtime.host.ExtensionInfo;
 import com.azure.runtime.host.extensions.dotnet.resources.Project;
 
+@ExtensionInfo(name = "Microsoft .NET", description = "Provides support for working with .NET applications.")
 public class DotnetExtension implements Extension {
 
-    @Override
-    public String getName() {
-        return "Microsoft .NET";
-    }
-
-    @Override
-    public String getDescription() {
-        return "Provides support for working with .NET applications.";
-    }
-
     /**
      * Add a new project to the distributed application.
      *
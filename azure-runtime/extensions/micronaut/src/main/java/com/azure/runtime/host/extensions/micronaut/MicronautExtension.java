@@ -1,13 +1,12 @@
 package com.azure.runtime.host.extensions.micronaut;
 
 import com.azure.runtime.host.DistributedApplication;
+import com.azure.runtime.host.ExtensionInfo;
 import com.azure.runtime.host.extensions.micronaut.resources.MicronautProject;
 import com.azure.runtime.host.extensions.microservice.common.MicroserviceExtension;
 
+@ExtensionInfo(name = "Micronaut", description = "Provides support for working with Micronaut applications.")
 public class MicronautExtension extends MicroserviceExtension {
-    public MicronautExtension() {
-        super("Micronaut", "Provides support for working with Micronaut applications.");
-    }
 
     /**
      * Adds a new Micronaut project to the app host.
@@ -8,6 +8,14 @@ public abstract class MicroserviceExtension implements Extension {
     private final String name;
     private final String description;
 
+    /**
+     * Creates an extension whose name and description are given by its {@link com.azure.runtime.host.ExtensionInfo}
+     * annotation.
+     */
+    protected MicroserviceExtension() {
+        this(null, null);
+    }
+
     protected MicroserviceExtension(String name, String description) {
         this.name = name;
         this.description = description;
@@ -15,12 +23,12 @@ public abstract class MicroserviceExtension implements Extension {
 
     @Override
     public String getName() {
-        return name;
+        return name == null ? Extension.super.getName() : name;
     }
 
     @Override
     public String getDescription() {
-        return description;
+        return description == null ? Extension.super.getDescription() : description;
     }
 
     /**
@@ -10,8 +10,10 @@ import com.azure.runtime.host.resources.DockerFile;
 import com.azure.runtime.host.resources.ResourceType;
 import com.azure.runtime.host.resources.traits.IntrospectiveResource;
 import com.azure.runtime.host.resources.traits.ResourceWithReference;
+import com.azure.runtime.host.resources.traits.ResourceWithSources;
 import com.azure.runtime.host.resources.traits.ResourceWithTemplate;
 import com.azure.runtime.host.utils.FileUtilities;
+import com.azure.runtime.host.utils.FingerprintStore;
 import com.azure.runtime.host.utils.json.RelativePath;
 import com.azure.runtime.host.utils.templates.TemplateDescriptor;
 import com.azure.runtime.host.utils.templates.TemplateDescriptorsBuilder;
@@ -21,14 +23,21 @@ import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.logging.Logger;
 
 public class MicroserviceProject<T extends MicroserviceProject<T>> extends Container<T>
-        implements ResourceWithTemplate<T>, IntrospectiveResource, ResourceWithReference<T> {
+        implements ResourceWithTemplate<T>, IntrospectiveResource, ResourceWithReference<T>, ResourceWithSources {
+
+    private static final Logger LOGGER = Logger.getLogger(MicroserviceProject.class.getName());
 
     @JsonIgnore
     private static final ResourceType resourceType = ResourceType.fromString("project.spring.image.v0"); // FIXME
@@ -69,7 +78,7 @@ public class MicroserviceProject<T extends MicroserviceProject<T>> extends Conta
     public void introspect() {
         // we add the available strategies to the JavaAppHostManifest and leave it to azd to try its best...
         Map<String, String> outputEnvs = new HashMap<>();
-        this.strategies = new BuildIntrospector().introspect(this, outputEnvs);
+        this.strategies = introspectBuild(outputEnvs);
 
         // Add the environment introspected from the project
         outputEnvs.forEach((k, v) -> {
@@ -134,6 +143,68 @@ public class MicroserviceProject<T extends MicroserviceProject<T>> extends Conta
         }
     }
 
+    /**
+     * Runs the build introspection for this project, unless the App Host is running incrementally (or generating
+     * several environments at once) and none of the inputs to the introspection (the project path and its build files)
+     * have changed since the previous run (or environment), in which case the previous result is reused. Introspections
+     * that fail are not recorded, so they are retried on the next run.
+     */
+    private Set<DeploymentStrategy> introspectBuild(Map<String, String> outputEnvs) {
+        final FingerprintStore fingerprints = DistributedApplication.getInstance().getFingerprintStore();
+        if (!fingerprints.isEnabled() || path == null) {
+            return new BuildIntrospector().introspect(this, outputEnvs);
+        }
+
+        final String key = "introspection:" + getName();
+        final Path projectPath = Paths.get(path);
+        final String fingerprint = FingerprintStore.fingerprint()
+            .with(getClass().getName())
+            .with(path)
+            .with(openTelemetryEnabled)
+            .withFile(projectPath.resolve("pom.xml"))
+            .withFile(projectPath.resolve("build.gradle"))
+            .withFile(projectPath.resolve("Dockerfile"))
+            .build();
+
+        Optional<IntrospectionResult> previous = fingerprints.lookup(key, fingerprint, IntrospectionResult.class);
+        if (previous.isPresent()) {
+            LOGGER.info("Project '" + getName() + "' is unchanged, reusing previous introspection");
+            outputEnvs.putAll(previous.get().outputEnvs());
+            return previous.get().toStrategies();
+        }
+
+        final BuildIntrospector introspector = new BuildIntrospector();
+        Set<DeploymentStrategy> introspectedStrategies = introspector.introspect(this, outputEnvs);
+        // a build file we couldn't read gives an incomplete result, which must not be reused as if it were complete
+        if (!introspector.hasFailed()) {
+            fingerprints.record(key, fingerprint, IntrospectionResult.of(introspectedStrategies, outputEnvs));
+        }
+        return introspectedStrategies;
+    }
+
+    /**
+     * The result of introspecting a project, in a form that can be persisted by the {@link FingerprintStore}.
+     */
+    private record IntrospectionResult(Map<String, String> outputEnvs, List<StrategyResult> strategies) {
+        static IntrospectionResult of(Set<DeploymentStrategy> strategies, Map<String, String> outputEnvs) {
+            return new IntrospectionResult(new TreeMap<>(outputEnvs), strategies.stream()
+                .map(s -> new StrategyResult(s.getType(), s.getPriority(), s.getCommands()))
+                .toList());
+        }
+
+        Set<DeploymentStrategy> toStrategies() {
+            Set<DeploymentStrategy> result = new TreeSet<>();
+            for (StrategyResult s : strategies) {
+                DeploymentStrategy strategy = new DeploymentStrategy(s.type(), s.priority());
+                s.commands().forEach(strategy::withCommand);
+                result.add(strategy);
+            }
+            return result;
+        }
+    }
+
+    private record StrategyResult(DeploymentStrategy.DeploymentType type, int priority, List<String[]> commands) { }
+
     /**
      * The path to the project file. Relative paths are interpreted as being relative to the location of the manifest file.
      * @param path
@@ -150,6 +221,12 @@ public class MicroserviceProject<T extends MicroserviceProject<T>> extends Conta
         return path;
     }
 
+    @Override
+    @JsonIgnore
+    public List<String> getSourcePaths() {
+        return path == null ? List.of() : List.of(path);
+    }
+
     @JsonIgnore
     public T withOpenTelemetry() {
         this.openTelemetryEnabled = true;
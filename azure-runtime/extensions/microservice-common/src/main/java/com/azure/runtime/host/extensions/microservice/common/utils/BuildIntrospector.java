@@ -23,6 +23,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
@@ -30,6 +31,7 @@ import java.util.TreeSet;
 import java.util.logging.Logger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 public class BuildIntrospector {
@@ -38,10 +40,15 @@ public class BuildIntrospector {
     private final Set<DeploymentStrategy> strategies = new TreeSet<>();
     private String DEFAULT_SERVER_PORT = "8081";
 
+    // set if any of the build files could not be read, in which case the strategies found may be incomplete
+    private boolean failed;
+
     public BuildIntrospector() { }
 
     public Set<DeploymentStrategy> introspect(MicroserviceProject project, Map<String, String> outputEnvs) {
         LOGGER.info("Beginning introspection of project: " + project.getName());
+        final IntrospectionEvent event = new IntrospectionEvent();
+        event.begin();
 
         /*
          * This is where we can look at the project and do things like:
@@ -53,7 +60,16 @@ public class BuildIntrospector {
         Map<String, String> introspectionProperties = new LinkedHashMap<>();
 
         lookForBuildFiles(project, introspectionProperties, outputEnvs);
-        introspectJavaFiles(project);
+        final int javaFilesParsed = introspectJavaFiles(project);
+
+        if (event.shouldCommit()) {
+            event.project = project.getName();
+            event.path = project.getPath();
+            event.buildFiles = String.join(",", introspectionProperties.keySet());
+            event.javaFilesParsed = javaFilesParsed;
+            event.strategies = strategies.stream().map(s -> s.getType().name()).collect(Collectors.joining(","));
+            event.commit();
+        }
 
         // TODO Take the introspection properties and turn it into a set of useful properties to pass to the aspire-manifest,
         // and modify the properties of the SpringProject directly
@@ -62,6 +78,15 @@ public class BuildIntrospector {
         return strategies;
     }
 
+    /**
+     * Indicates whether any of the build files of the project could not be read during {@link #introspect}, in which
+     * case the strategies and environment it returned may be incomplete.
+     * @return True if introspection failed.
+     */
+    public boolean hasFailed() {
+        return failed;
+    }
+
     private void lookForBuildFiles(MicroserviceProject project, Map<String, String> properties, Map<String, String> outputEnvs) {
         LOGGER.fine("Looking for build files in project: " + project.getName());
 
@@ -165,6 +190,7 @@ public class BuildIntrospector {
 
             strategies.add(deploymentStrategy);
         } catch (Exception e) {
+            failed = true;
             e.printStackTrace();
         }
     }
@@ -235,6 +261,7 @@ public class BuildIntrospector {
 //            deploymentStrategy.withCommand(command.toArray(new String[0]));
 //            strategies.add(deploymentStrategy);
         } catch (IOException e) {
+            failed = true;
             e.printStackTrace();
         }
 
@@ -271,9 +298,9 @@ public class BuildIntrospector {
         return false;
     }
 
-    private void introspectJavaFiles(MicroserviceProject project) {
+    private int introspectJavaFiles(MicroserviceProject project) {
         if (project.getPath() == null) {
-            return;
+            return 0;
         }
 
         // Create a JavaParser instance
@@ -284,12 +311,15 @@ public class BuildIntrospector {
 
         // Walk the project directory and parse each .java file
         try (Stream<Path> paths = Files.walk(projectPath)) {
-            paths.filter(Files::isRegularFile)
+            final List<Path> javaFiles = paths.filter(Files::isRegularFile)
                     .filter(path -> path.toString().endsWith(".java"))
-                    .forEach(path -> parseAndVisit(javaParser, path.toFile()));
+                    .toList();
+            javaFiles.forEach(path -> parseAndVisit(javaParser, path.toFile()));
+            return javaFiles.size();
         } catch (IOException e) {
             LOGGER.severe("Failed to walk Spring project path '" + projectPath + "' relative to working directory.");
 //            e.printStackTrace();
+            return 0;
         }
     }
 
@@ -1,5 +1,7 @@
 package com.azure.runtime.host.extensions.microservice.common.utils;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -32,6 +34,12 @@ public class DeploymentStrategy implements Comparable<DeploymentStrategy> {
         return type;
     }
 
+    // The priority only orders the strategies, it is not part of the manifest
+    @JsonIgnore
+    public int getPriority() {
+        return priority;
+    }
+
     public DeploymentStrategy withCommand(String[] command) {
         commands.add(command);
         return this;
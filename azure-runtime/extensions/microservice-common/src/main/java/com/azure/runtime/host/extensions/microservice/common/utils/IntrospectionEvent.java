@@ -0,0 +1,38 @@
+package com.azure.runtime.host.extensions.microservice.common.utils;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The introspection of a microservice project by the {@link BuildIntrospector}, for profiling manifest generation with
+ * JDK Flight Recorder.
+ */
+@Name(IntrospectionEvent.NAME)
+@Label("Project Introspection")
+@Description("The introspection of the build files and sources of a microservice project")
+@Category({"Azure Runtime", "App Host"})
+@StackTrace(false)
+final class IntrospectionEvent extends Event {
+    static final String NAME = "com.azure.runtime.host.extensions.microservice.Introspection";
+
+    @Label("Project")
+    String project;
+
+    @Label("Path")
+    String path;
+
+    @Label("Build Files")
+    @Description("The build files found in the project, such as pom.xml or a Dockerfile")
+    String buildFiles;
+
+    @Label("Java Files Parsed")
+    int javaFilesParsed;
+
+    @Label("Strategies")
+    @Description("The deployment strategies found for the project")
+    String strategies;
+}
@@ -6,6 +6,7 @@ module com.azure.runtime.host.extensions.microservice.common {
     requires com.github.javaparser.core;
     requires java.xml;
     requires java.logging;
+    requires jdk.jfr;
     requires maven.model;
     requires plexus.utils;
 
@@ -1,13 +1,12 @@
 package com.azure.runtime.host.extensions.quarkus;
 
 import com.azure.runtime.host.DistributedApplication;
+import com.azure.runtime.host.ExtensionInfo;
 import com.azure.runtime.host.extensions.quarkus.resources.QuarkusProject;
 import com.azure.runtime.host.extensions.microservice.common.MicroserviceExtension;
 
+@ExtensionInfo(name = "Quarkus", description = "Provides support for working with Quarkus applications.")
 public class QuarkusExtension extends MicroserviceExtension {
-    public QuarkusExtension() {
-        super("Quarkus", "Provides support for working with Quarkus applications.");
-    }
 
     /**
      * Adds a new Quarkus project to the app host.
@@ -1,13 +1,12 @@
 package com.azure.runtime.host.extensions.spring;
 
 import com.azure.runtime.host.DistributedApplication;
+import com.azure.runtime.host.ExtensionInfo;
 import com.azure.runtime.host.extensions.microservice.common.MicroserviceExtension;
 import com.azure.runtime.host.extensions.spring.resources.SpringProject;
 
+@ExtensionInfo(name = "Spring", description = "Provides support for working with Spring applications.")
 public class SpringExtension extends MicroserviceExtension {
-    public SpringExtension() {
-        super("Spring", "Provides support for working with Spring applications.");
-    }
 
     /**
      * Adds a new Spring project to the app host.